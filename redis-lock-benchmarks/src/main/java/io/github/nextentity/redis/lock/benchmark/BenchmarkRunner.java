@@ -0,0 +1,38 @@
+package io.github.nextentity.redis.lock.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks twice: for throughput in operations per second,
+ * and sampling the latency of single operations in nanoseconds, which reports percentiles.
+ * <p>
+ * Build with {@code mvn -pl redis-lock-benchmarks -am package} and run with
+ * {@code java -jar redis-lock-benchmarks/target/benchmarks.jar [JMH options]};
+ * JMH options such as a benchmark regex, {@code -f} or {@code -i} are passed through.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .build()).run();
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .mode(Mode.SampleTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build()).run();
+    }
+}
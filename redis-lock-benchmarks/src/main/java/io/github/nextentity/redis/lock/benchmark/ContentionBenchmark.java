@@ -0,0 +1,74 @@
+package io.github.nextentity.redis.lock.benchmark;
+
+import io.github.nextentity.redis.lock.InMemorySynchronizeSupport;
+import io.github.nextentity.redis.lock.LockFactory;
+import io.github.nextentity.redis.lock.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Benchmarks of threads contending for one lock key.
+ * <p>
+ * In the {@code local} group all threads share one lock of one node, so the lock is mostly handed over locally.
+ * In the {@code crossNode} group two nodes contend, so every handover goes through the support.
+ */
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContentionBenchmark {
+
+    private LockFactory first;
+    private LockFactory second;
+    private Lock firstLock;
+    private Lock secondLock;
+
+    @Setup
+    public void setUp() {
+        InMemorySynchronizeSupport support = new InMemorySynchronizeSupport(new Option());
+        first = Factories.newNode(support);
+        second = Factories.newNode(support);
+        firstLock = first.get("contended");
+        secondLock = second.get("contended");
+    }
+
+    @TearDown
+    public void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    @Benchmark
+    @Group("local")
+    @GroupThreads(4)
+    public void localContention() {
+        firstLock.lock();
+        firstLock.unlock();
+    }
+
+    @Benchmark
+    @Group("crossNode")
+    @GroupThreads(2)
+    public void crossNodeFirst() {
+        firstLock.lock();
+        firstLock.unlock();
+    }
+
+    @Benchmark
+    @Group("crossNode")
+    @GroupThreads(2)
+    public void crossNodeSecond() {
+        secondLock.lock();
+        secondLock.unlock();
+    }
+}
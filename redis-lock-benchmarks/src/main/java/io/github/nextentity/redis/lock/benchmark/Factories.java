@@ -0,0 +1,29 @@
+package io.github.nextentity.redis.lock.benchmark;
+
+import io.github.nextentity.redis.lock.IdGenerator;
+import io.github.nextentity.redis.lock.LockFactory;
+import io.github.nextentity.redis.lock.Option;
+import io.github.nextentity.redis.lock.SynchronizeSupport;
+import io.github.nextentity.redis.lock.cache.ReferenceType;
+import io.github.nextentity.redis.lock.cache.ReferenceValueMap;
+
+/**
+ * Creates the lock factories the benchmarks run against.
+ */
+final class Factories {
+
+    private Factories() {
+    }
+
+    /**
+     * Creates a factory acting as a separate node, with its own client ID, on the given support.
+     *
+     * @param support The support shared by all nodes of a benchmark
+     * @return A new instance of LockFactory
+     */
+    static LockFactory newNode(SynchronizeSupport support) {
+        Option option = new Option();
+        option.setClientId(IdGenerator.generateUniqueId());
+        return new LockFactory(new ReferenceValueMap<>(ReferenceType.WEAK), option, support);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.nextentity.redis.lock.benchmark;
+
+import io.github.nextentity.redis.lock.InMemorySynchronizeSupport;
+import io.github.nextentity.redis.lock.LockFactory;
+import io.github.nextentity.redis.lock.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Single-threaded benchmarks of the lock hot path.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LockBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private InMemorySynchronizeSupport support;
+    private LockFactory factory;
+    private Lock lock;
+    private Lock heldElsewhere;
+    private String[] keys;
+    // keeps the weakly cached locks of the lookup benchmark alive
+    private Lock[] cached;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        support = new InMemorySynchronizeSupport(new Option());
+        factory = Factories.newNode(support);
+        lock = factory.get("uncontended");
+        support.setIfAbsentOrGetRemainingTTL("held", "another-node", TimeUnit.DAYS.toMillis(1));
+        heldElsewhere = factory.get("held");
+        keys = new String[KEYS];
+        cached = new Lock[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+            cached[i] = factory.get(keys[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    /**
+     * Lock and unlock a lock no one else uses.
+     */
+    @Benchmark
+    public void lockUnlock() {
+        lock.lock();
+        lock.unlock();
+    }
+
+    /**
+     * Lock a lock twice and unlock it twice; the nested hold does not touch the support.
+     */
+    @Benchmark
+    public void reentrantLockUnlock() {
+        lock.lock();
+        lock.lock();
+        lock.unlock();
+        lock.unlock();
+    }
+
+    /**
+     * Try to lock a lock held by another node.
+     */
+    @Benchmark
+    public boolean tryLockMiss() {
+        return heldElsewhere.tryLock();
+    }
+
+    /**
+     * Look up cached locks by key.
+     */
+    @Benchmark
+    public Lock factoryGet() {
+        return factory.get(keys[next++ & (KEYS - 1)]);
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.nextentity.redis.lock.benchmark;
+
+import io.github.nextentity.redis.lock.LockScripts;
+import io.github.nextentity.redis.lock.LuaScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Benchmarks of invoking a lock script with EVAL, which sends its source, versus EVALSHA, which sends its digest.
+ * <p>
+ * Runs against the Redis given by the {@code redis.host} and {@code redis.port} system properties,
+ * by default {@code 127.0.0.1:6379}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScriptBenchmark {
+
+    private final LuaScript script = LockScripts.SET_IF_ABSENT_OR_GET_REMAINING_TTL;
+    private final List<String> args = List.of("benchmark", "60000");
+
+    private JedisPooled jedis;
+    private List<String> keys;
+
+    @Setup
+    public void setUp() {
+        String host = System.getProperty("redis.host", "127.0.0.1");
+        int port = Integer.getInteger("redis.port", 6379);
+        jedis = new JedisPooled(new HostAndPort(host, port));
+        jedis.scriptLoad(script.getSource(), "sample");
+        keys = Collections.singletonList(UUID.randomUUID().toString());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jedis.del(keys.get(0));
+        jedis.close();
+    }
+
+    @Benchmark
+    public Object eval() {
+        return jedis.eval(script.getSource(), keys, args);
+    }
+
+    @Benchmark
+    public Object evalsha() {
+        return jedis.evalsha(script.getSha1(), keys, args);
+    }
+}
@@ -0,0 +1,295 @@
+package io.github.nextentity.redis.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Dispatches release notifications to the callbacks registered for a key.
+ * <p>
+ * The base channel and the client's direct channel are always subscribed. When release channels are partitioned, a partition channel
+ * is subscribed when its first waiter arrives and unsubscribed once it has had no waiters for
+ * {@link Option#getChannelIdleTimeout()}, so a node only receives the releases it is waiting on.
+ * <p>
+ * With {@link Option#getKeyspaceNotificationPattern()} set, the keyspace notifications of the matching keys are
+ * subscribed as well, and the expiry or deletion of a key is dispatched like its release.
+ * <p>
+ * Received keys are dispatched by a {@link StripedDispatcher} unless {@link Option#getDispatchStripes()} is 0,
+ * keeping the thread reading messages free to read the next one.
+ */
+public abstract class AbstractSubscriber implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractSubscriber.class);
+
+    /**
+     * Maximum time a waiter waits for a new partition subscription to be confirmed
+     */
+    private static final long SUBSCRIBE_TIMEOUT_MILLIS = 1000;
+
+    private static final String KEYSPACE_CHANNEL_PREFIX = "__keyspace@*__:";
+    private static final String KEY_SEPARATOR = "__:";
+    private static final Set<String> RELEASING_EVENTS = Set.of("expired", "del");
+
+    protected final ReleaseChannels channels;
+    protected final String directChannel;
+    // pattern of the keyspace channels of the lock keys, or null
+    protected final String keyspaceChannelPattern;
+    private final Map<String, Set<Runnable>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long channelIdleTimeout;
+    private final LockMetrics metrics;
+    // null when dispatching on the reading thread
+    private final StripedDispatcher dispatcher;
+
+    // guarded by this
+    private final Map<String, ChannelState> channelStates = new HashMap<>();
+    private boolean connected;
+
+    protected volatile boolean isShutdown;
+
+    /**
+     * Constructs an AbstractSubscriber with the specified options.
+     *
+     * @param option Configuration options
+     */
+    protected AbstractSubscriber(Option option) {
+        this.channels = new ReleaseChannels(option.getChannelId(), option.getChannelPartitions());
+        this.directChannel = channels.directChannelOf(option.getClientId());
+        String keyPattern = option.getKeyspaceNotificationPattern();
+        this.keyspaceChannelPattern = keyPattern == null ? null : KEYSPACE_CHANNEL_PREFIX + keyPattern;
+        this.scheduler = option.getScheduler();
+        this.channelIdleTimeout = option.getChannelIdleTimeout();
+        this.metrics = option.getMetrics();
+        this.dispatcher = option.getDispatchStripes() == 0 ? null : new StripedDispatcher(
+                option.getDispatchStripes(), option.getDispatchQueueCapacity(), option.getCommandAsyncExecutor(), this::runCallbacks);
+    }
+
+    /**
+     * Subscribes to a key with a callback to be executed when a message is received.
+     * <p>
+     * If the key hashes onto a partition channel that is not subscribed yet,
+     * this waits until Redis confirms the subscription so the next release is not missed.
+     *
+     * @param key      The key to subscribe to
+     * @param callback The callback to execute upon message receipt
+     * @return A cancelable subscription
+     */
+    public SynchronizeSupport.Cancelable addSubscriber(String key, Runnable callback) {
+        if (isShutdown) {
+            throw new IllegalStateException("Subscriber has been shutdown");
+        }
+        subscribers.compute(key, (k, callbacks) -> {
+            if (callbacks == null) {
+                callbacks = ConcurrentHashMap.newKeySet();
+            }
+            callbacks.add(callback);
+            return callbacks;
+        });
+        if (!channels.isPartitioned()) {
+            return () -> removeSubscriber(key, callback);
+        }
+        String channel = channels.channelOf(key);
+        awaitSubscribed(acquireChannel(channel), channel);
+        return () -> {
+            if (removeSubscriber(key, callback)) {
+                releaseChannel(channel);
+            }
+        };
+    }
+
+    /**
+     * Removes a callback, dropping the key once it has no callbacks left.
+     *
+     * @return {@code true} if the callback was registered
+     */
+    private boolean removeSubscriber(String key, Runnable callback) {
+        boolean[] removed = {false};
+        subscribers.computeIfPresent(key, (k, callbacks) -> {
+            removed[0] = callbacks.remove(callback);
+            return callbacks.isEmpty() ? null : callbacks;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Returns the number of received keys waiting to be dispatched.
+     *
+     * @return The dispatch queue depth, always 0 when dispatching on the reading thread
+     */
+    public int getDispatchQueueDepth() {
+        return dispatcher == null ? 0 : dispatcher.depth();
+    }
+
+    /**
+     * Dispatches a received key to the callbacks registered for it.
+     *
+     * @param key The key whose release was received
+     */
+    protected void dispatch(String key) {
+        metrics.recordMessage();
+        if (dispatcher == null) {
+            runCallbacks(key);
+        } else if (subscribers.containsKey(key)) {
+            metrics.recordDispatchQueue(dispatcher.offer(key));
+        }
+    }
+
+    /**
+     * Runs the callbacks registered for a key.
+     */
+    private void runCallbacks(String key) {
+        Set<Runnable> callbacks = subscribers.getOrDefault(key, Collections.emptySet());
+        if (callbacks.isEmpty()) {
+            // nobody waits for the key here, or its waiters left while it was queued
+            return;
+        }
+        SubscriberDispatchEvent event = new SubscriberDispatchEvent();
+        event.begin();
+        int dispatched = 0;
+        for (Runnable callback : callbacks) {
+            dispatched++;
+            try {
+                callback.run();
+            } catch (Exception e) {
+                logger.error("Error executing callback {}", callback, e);
+            }
+        }
+        event.complete(key, dispatched);
+    }
+
+    /**
+     * Dispatches a keyspace notification if it reports that the key was expired or deleted.
+     *
+     * @param channel The keyspace channel, {@code __keyspace@<db>__:<key>}
+     * @param event   The event name
+     */
+    protected void dispatchKeyspaceEvent(String channel, String event) {
+        if (RELEASING_EVENTS.contains(event)) {
+            dispatch(channel.substring(channel.indexOf(KEY_SEPARATOR) + KEY_SEPARATOR.length()));
+        }
+    }
+
+    /**
+     * Sends a SUBSCRIBE for the given partition channels. Called while holding the subscriber's monitor.
+     *
+     * @param channels Channel names
+     */
+    protected abstract void sendSubscribe(String... channels);
+
+    /**
+     * Sends an UNSUBSCRIBE for the given partition channel. Called while holding the subscriber's monitor.
+     *
+     * @param channel Channel name
+     */
+    protected abstract void sendUnsubscribe(String channel);
+
+    /**
+     * Sends a PSUBSCRIBE for the keyspace channels of the lock keys. Called while holding the subscriber's monitor.
+     *
+     * @param pattern Channel pattern
+     */
+    protected abstract void sendPatternSubscribe(String pattern);
+
+    /**
+     * Called once the base channel subscription is established, (re)subscribing all wanted partitions.
+     */
+    protected synchronized void onConnected() {
+        connected = true;
+        if (keyspaceChannelPattern != null) {
+            trySend(() -> sendPatternSubscribe(keyspaceChannelPattern));
+        }
+        if (!channelStates.isEmpty()) {
+            trySend(() -> sendSubscribe(channelStates.keySet().toArray(String[]::new)));
+        }
+    }
+
+    /**
+     * Called when the subscription connection is lost.
+     */
+    protected synchronized void onDisconnected() {
+        connected = false;
+    }
+
+    /**
+     * Called when Redis confirms the subscription to a channel.
+     *
+     * @param channel Channel name
+     */
+    protected synchronized void onChannelSubscribed(String channel) {
+        ChannelState state = channelStates.get(channel);
+        if (state != null) {
+            state.subscribed.complete(null);
+        }
+    }
+
+    private synchronized CompletableFuture<Void> acquireChannel(String channel) {
+        ChannelState state = channelStates.get(channel);
+        if (state == null) {
+            state = new ChannelState();
+            channelStates.put(channel, state);
+            if (connected && !isShutdown) {
+                trySend(() -> sendSubscribe(channel));
+            }
+        }
+        state.waiters++;
+        if (state.idleTask != null) {
+            state.idleTask.cancel(false);
+            state.idleTask = null;
+        }
+        return state.subscribed;
+    }
+
+    private synchronized void releaseChannel(String channel) {
+        ChannelState state = channelStates.get(channel);
+        if (state == null || --state.waiters > 0) {
+            return;
+        }
+        state.idleTask = scheduler.schedule(() -> unsubscribeIdle(channel, state), channelIdleTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void unsubscribeIdle(String channel, ChannelState state) {
+        if (state.waiters == 0 && channelStates.remove(channel, state)) {
+            logger.debug("Unsubscribing idle channel {}", channel);
+            if (connected && !isShutdown) {
+                trySend(() -> sendUnsubscribe(channel));
+            }
+        }
+    }
+
+    private void awaitSubscribed(CompletableFuture<Void> subscribed, String channel) {
+        if (subscribed.isDone()) {
+            return;
+        }
+        try {
+            subscribed.get(SUBSCRIBE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Subscription to {} not confirmed, continuing", channel, e);
+        }
+    }
+
+    private void trySend(Runnable command) {
+        try {
+            command.run();
+        } catch (Exception e) {
+            logger.warn("Failed to update channel subscriptions, retrying on reconnect", e);
+        }
+    }
+
+    private static class ChannelState {
+        private final CompletableFuture<Void> subscribed = new CompletableFuture<>();
+        private int waiters;
+        private ScheduledFuture<?> idleTask;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lock acquired and released without blocking the calling thread.
+ * <p>
+ * The lock is owned by whoever completed an acquisition, not by a thread, and is not reentrant:
+ * every successful acquisition must be followed by exactly one {@link #unlockAsync()}.
+ */
+public interface AsyncLock {
+
+    /**
+     * Acquires the lock.
+     * <p>
+     * Cancelling the returned future withdraws the acquisition, or releases the lock if it was already acquired.
+     *
+     * @return A future completed once the lock is acquired
+     */
+    CompletableFuture<Void> lockAsync();
+
+    /**
+     * Acquires the lock if it becomes available within the given waiting time.
+     *
+     * @param time The maximum time to wait for the lock
+     * @param unit The time unit of the {@code time} argument
+     * @return A future completed with {@code true} if the lock was acquired,
+     *         or {@code false} if the waiting time elapsed
+     */
+    CompletableFuture<Boolean> tryLockAsync(long time, TimeUnit unit);
+
+    /**
+     * Releases the lock.
+     *
+     * @return A future completed once the lock is released, or completed exceptionally
+     *         with {@link IllegalMonitorStateException} if the lock is not held
+     */
+    CompletableFuture<Void> unlockAsync();
+}
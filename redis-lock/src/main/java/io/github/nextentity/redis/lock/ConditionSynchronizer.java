@@ -0,0 +1,137 @@
+package io.github.nextentity.redis.lock;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Manages the waiters and signals of a distributed condition.
+ * <p>
+ * Waiters are queued in Redis, each with its own key that is renewed while it waits.
+ * A signal removes the first live waiter from the queue, deletes its key and publishes it,
+ * so only the signalled client is woken.
+ */
+public class ConditionSynchronizer {
+    private static final Logger logger = LoggerFactory.getLogger(ConditionSynchronizer.class);
+    private static final AtomicLong WAITER_IDS = new AtomicLong();
+
+    private final SynchronizeSupport support;
+    private final LockKeyManager lockKeyManager;
+    @Getter
+    private final String key;
+    private final String clientId;
+    private final long timeToLiveMillis;
+    private final long maxWaitTimeMillis;
+
+    /**
+     * Constructs a ConditionSynchronizer with the specified parameters.
+     *
+     * @param support           SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager    LockKeyManager for renewing waiter keys
+     * @param key               The condition key
+     * @param clientId          The client ID
+     * @param timeToLiveMillis  Time to live of waiter keys
+     * @param maxWaitTimeMillis Maximum time to park before checking whether a signal was missed
+     */
+    public ConditionSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, String key,
+                                 String clientId, long timeToLiveMillis, long maxWaitTimeMillis) {
+        this.support = support;
+        this.lockKeyManager = lockKeyManager;
+        this.key = key;
+        this.clientId = clientId;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxWaitTimeMillis = maxWaitTimeMillis;
+    }
+
+    /**
+     * Queues the current thread as a waiter. Must be called while holding the lock of the condition.
+     *
+     * @return The waiter to pass to {@link #awaitSignal(Waiter, long, boolean)}
+     */
+    public Waiter addWaiter() {
+        String token = KeyNames.derive(key, clientId + ":" + WAITER_IDS.incrementAndGet());
+        Waiter waiter = new Waiter(token, Thread.currentThread());
+        waiter.subscription = support.subscribeToKey(token, waiter::signal);
+        try {
+            support.addConditionWaiter(key, token, clientId, timeToLiveMillis);
+        } catch (RuntimeException e) {
+            waiter.subscription.cancel();
+            throw e;
+        }
+        // a signal deletes the waiter key, which is not a lost lock
+        lockKeyManager.addKey(token);
+        return waiter;
+    }
+
+    /**
+     * Waits until the waiter is signalled or the deadline passes, then removes it from the queue.
+     *
+     * @param waiter        The waiter returned by {@link #addWaiter()}
+     * @param deadline      The deadline in milliseconds
+     * @param interruptible {@code true} to stop waiting when the thread is interrupted
+     * @return {@code true} if the waiter was signalled
+     */
+    public boolean awaitSignal(Waiter waiter, long deadline, boolean interruptible) {
+        // cleared while parking so that an uninterruptible wait does not spin, and restored at the end
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (!waiter.signalled) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || interruptible && interrupted) {
+                    // a signal that raced with giving up still counts
+                    return !support.removeConditionWaiter(key, waiter.token);
+                }
+                long waitTime = Math.min(remaining, maxWaitTimeMillis);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(waitTime));
+                interrupted |= Thread.interrupted();
+                // the published signal may have been lost, e.g. while the subscriber reconnected
+                if (waitTime < remaining && !waiter.signalled && !interrupted
+                    && !support.isConditionWaiting(waiter.token)) {
+                    logger.debug("Missed signal for {}", waiter.token);
+                    return true;
+                }
+            }
+            return true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            lockKeyManager.removeKey(waiter.token);
+            waiter.subscription.cancel();
+        }
+    }
+
+    /**
+     * Signals waiters in queue order. Must be called while holding the lock of the condition.
+     *
+     * @param all {@code true} to signal all waiters, otherwise only the first one
+     * @return The number of waiters signalled
+     */
+    public int signal(boolean all) {
+        return support.signalCondition(key, all);
+    }
+
+    /**
+     * A client thread waiting on the condition.
+     */
+    public static final class Waiter {
+        private final String token;
+        private final Thread thread;
+        private volatile boolean signalled;
+        private SynchronizeSupport.Cancelable subscription;
+
+        private Waiter(String token, Thread thread) {
+            this.token = token;
+            this.thread = thread;
+        }
+
+        private void signal() {
+            signalled = true;
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.List;
+
+/**
+ * Synchronizer for fair distributed locks.
+ * <p>
+ * Waiting clients are kept in a FIFO queue in Redis. On release the lock is handed straight to the
+ * head of the queue and only that client is notified, instead of waking every waiter to race for it.
+ * Queue entries are leased for {@link Option#getWaiterLease()} and refreshed on each retry,
+ * so waiters that crashed are skipped.
+ */
+public class FairLockSynchronizer extends LockSynchronizer {
+
+    private final long waiterLeaseMillis;
+
+    /**
+     * Constructs a FairLockSynchronizer with the specified parameters.
+     *
+     * @param support        SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager LockKeyManager for managing lock keys
+     * @param key            The lock key
+     * @param option         Configuration options
+     */
+    public FairLockSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, String key, Option option) {
+        // refresh the queue entry well before its lease runs out
+        super(support, lockKeyManager, key, option,
+                Math.min(option.getWaitLimit(), option.getWaiterLease() / 2), List.of(key));
+        this.waiterLeaseMillis = option.getWaiterLease();
+    }
+
+    @Override
+    protected Long acquireOrGetRemainingTTL(boolean waiting) {
+        return support.tryAcquireFairLock(key, clientId, timeToLiveMillis, waiting ? waiterLeaseMillis : 0);
+    }
+
+    @Override
+    protected boolean abandonAcquire() {
+        return support.cancelFairLockWait(key, clientId, timeToLiveMillis);
+    }
+
+    @Override
+    protected boolean release() {
+        return support.releaseFairLock(key, clientId, waiterLeaseMillis);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exponentially weighted estimates of how long locks are held, by group of lock keys.
+ * <p>
+ * Each group keeps a moving average of its hold times and of their deviation from it, so that estimates follow
+ * changes in how a lock is used. Groups are updated independently of each other. At most {@value #MAX_GROUPS}
+ * groups are kept; beyond that an arbitrary group is dropped for each new one, and starts over when used again.
+ */
+final class HoldTimeStatistics {
+    private static final int MAX_GROUPS = 10_000;
+
+    /**
+     * Weight of a new hold time in the averages
+     */
+    private static final double ALPHA = 0.2;
+
+    /**
+     * Deviations above the average hold time that cover nearly all holds
+     */
+    private static final double DEVIATIONS = 4;
+
+    private final Map<String, Estimate> estimates = new ConcurrentHashMap<>();
+
+    /**
+     * Records a hold time of a lock.
+     *
+     * @param group    The group of the lock key
+     * @param holdTime The hold time in milliseconds
+     */
+    void record(String group, long holdTime) {
+        Estimate estimate = estimates.get(group);
+        if (estimate == null) {
+            estimate = estimates.putIfAbsent(group, new Estimate(holdTime));
+            if (estimate == null) {
+                dropBeyondLimit();
+                return;
+            }
+        }
+        estimate.update(holdTime);
+    }
+
+    /**
+     * Returns a hold time that nearly all holds of a group of locks stay within.
+     *
+     * @param group The group of the lock key
+     * @return The hold time in milliseconds, or -1 if none was recorded
+     */
+    long upperHoldTime(String group) {
+        Estimate estimate = estimates.get(group);
+        return estimate == null ? -1 : estimate.upper;
+    }
+
+    private void dropBeyondLimit() {
+        // iterated in hash order, so the groups dropped are arbitrary rather than the least recently used
+        Iterator<String> groups = estimates.keySet().iterator();
+        while (estimates.size() > MAX_GROUPS && groups.hasNext()) {
+            groups.next();
+            groups.remove();
+        }
+    }
+
+    private static final class Estimate {
+        // guarded by this
+        private double mean;
+        private double deviation;
+        // derived from the averages on each update, so that reads take no lock
+        private volatile long upper;
+
+        private Estimate(long holdTime) {
+            // assume a spread as wide as the first hold time until more are known
+            this.mean = holdTime;
+            this.deviation = holdTime / 2.0;
+            this.upper = upper();
+        }
+
+        private synchronized void update(long holdTime) {
+            double error = holdTime - mean;
+            mean += ALPHA * error;
+            deviation += ALPHA * (Math.abs(error) - deviation);
+            upper = upper();
+        }
+
+        private long upper() {
+            return (long) Math.ceil(mean + DEVIATIONS * deviation);
+        }
+    }
+}
@@ -0,0 +1,640 @@
+package io.github.nextentity.redis.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link SynchronizeSupport} keeping all lock state in process memory instead of Redis.
+ * <p>
+ * It implements the full contract, including TTLs, so locks of a crashed holder still expire, and every
+ * operation is atomic, as the Lua scripts are in Redis. It suits single-node deployments, where Redis would be
+ * pure overhead, and tests or benchmarks that should run without a Redis server. Several {@link LockFactory}
+ * instances sharing one support behave like separate nodes sharing one Redis.
+ * <p>
+ * Published keys are delivered to subscribers on {@link Option#getCommandAsyncExecutor()}, never on the
+ * publishing thread, and expired keys are purged periodically on {@link Option#getScheduler()}.
+ */
+public class InMemorySynchronizeSupport implements SynchronizeSupport {
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySynchronizeSupport.class);
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock
+    private final Map<String, Entry> data = new HashMap<>();
+    private final Map<String, Set<Runnable>> subscribers = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final ScheduledFuture<?> purgeTask;
+
+    /**
+     * Constructs an InMemorySynchronizeSupport with the specified options.
+     *
+     * @param option Configuration options
+     */
+    public InMemorySynchronizeSupport(Option option) {
+        this.executor = option.getCommandAsyncExecutor();
+        this.purgeTask = option.getScheduler()
+                .scheduleAtFixedRate(this::purgeExpired, PURGE_INTERVAL_MILLIS, PURGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void batchSetTimeToLive(Collection<String> keys, long milliseconds) {
+        atomically(published -> {
+            for (String key : keys) {
+                Entry entry = live(key);
+                if (entry != null) {
+                    entry.expireAt = now() + milliseconds;
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<String> renewIfOwned(Collection<String> keys, String value, long ttl) {
+        return atomically(published -> {
+            List<String> lost = new ArrayList<>();
+            long now = now();
+            for (String key : keys) {
+                Entry entry = live(key);
+                boolean owned = entry != null && switch (entry.type) {
+                    case STRING -> value.equals(entry.value);
+                    case SET -> entry.<Set<String>>value().contains(value);
+                    case HASH -> entry.<Map<String, Long>>value().containsKey(value);
+                    case ZSET -> {
+                        Map<String, Long> scores = entry.value();
+                        Long expiry = scores.get(value);
+                        if (expiry == null || expiry <= now) {
+                            yield false;
+                        }
+                        scores.put(value, now + ttl);
+                        yield true;
+                    }
+                    default -> false;
+                };
+                if (owned) {
+                    entry.expireAt = now + ttl;
+                } else {
+                    lost.add(key);
+                }
+            }
+            return lost;
+        });
+    }
+
+    @Override
+    public boolean deleteIfValueEquals(String key, String expectedValue) {
+        return atomically(published -> {
+            if (expectedValue.equals(get(key))) {
+                data.remove(key);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public Long setIfAbsentOrGetRemainingTTL(String key, String value, long ttl) {
+        return atomically(published -> {
+            if (live(key) == null) {
+                set(key, value, ttl);
+                return null;
+            }
+            return pttl(key);
+        });
+    }
+
+    @Override
+    public Long setAllIfAbsentOrGetRemainingTTL(List<String> keys, String value, long ttl) {
+        return atomically(published -> {
+            boolean blocked = false;
+            long wait = 0;
+            for (String key : keys) {
+                long remainingTTL = pttl(key);
+                if (remainingTTL != -2) {
+                    blocked = true;
+                    wait = Math.max(wait, remainingTTL);
+                }
+            }
+            if (blocked) {
+                return wait;
+            }
+            for (String key : keys) {
+                set(key, value, ttl);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean deleteAllIfValueEquals(List<String> keys, String expectedValue) {
+        return atomically(published -> {
+            int released = 0;
+            for (String key : keys) {
+                if (expectedValue.equals(get(key))) {
+                    data.remove(key);
+                    published.add(key);
+                    released++;
+                }
+            }
+            return released == keys.size();
+        });
+    }
+
+    @Override
+    public Long tryAcquireFairLock(String key, String value, long ttl, long waiterLease) {
+        String queueKey = KeyNames.fairQueue(key);
+        String timeoutKey = KeyNames.fairTimeout(key);
+        return atomically(published -> {
+            long now = now();
+            while (true) {
+                String head = peekFirst(queueKey);
+                if (head == null) {
+                    break;
+                }
+                Long expiry = zscore(timeoutKey, head);
+                if (expiry != null && expiry > now) {
+                    break;
+                }
+                pollFirst(queueKey);
+                zrem(timeoutKey, head);
+            }
+            String owner = get(key);
+            if (value.equals(owner)) {
+                pexpire(key, ttl);
+                lrem(queueKey, 0, value);
+                zrem(timeoutKey, value);
+                return null;
+            }
+            String head = peekFirst(queueKey);
+            if (owner == null && (head == null || head.equals(value))) {
+                if (head != null) {
+                    pollFirst(queueKey);
+                    zrem(timeoutKey, value);
+                }
+                set(key, value, ttl);
+                return null;
+            }
+            if (waiterLease > 0) {
+                if (zscore(timeoutKey, value) == null) {
+                    collection(queueKey, Type.LIST, ArrayDeque::new).addLast(value);
+                }
+                this.<Map<String, Long>>collection(timeoutKey, Type.ZSET, HashMap::new).put(value, now + waiterLease);
+                pexpire(queueKey, waiterLease);
+                pexpire(timeoutKey, waiterLease);
+            }
+            if (owner != null) {
+                return pttl(key);
+            }
+            return zscore(timeoutKey, head) - now;
+        });
+    }
+
+    @Override
+    public boolean releaseFairLock(String key, String value, long claimLease) {
+        String queueKey = KeyNames.fairQueue(key);
+        String timeoutKey = KeyNames.fairTimeout(key);
+        return atomically(published -> {
+            if (!value.equals(get(key))) {
+                return false;
+            }
+            long now = now();
+            while (true) {
+                String head = pollFirst(queueKey);
+                if (head == null) {
+                    data.remove(key);
+                    return true;
+                }
+                Long expiry = zscore(timeoutKey, head);
+                zrem(timeoutKey, head);
+                if (expiry != null && expiry > now) {
+                    set(key, head, claimLease);
+                    published.add(key);
+                    return true;
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean cancelFairLockWait(String key, String value, long ttl) {
+        return atomically(published -> {
+            lrem(KeyNames.fairQueue(key), 0, value);
+            zrem(KeyNames.fairTimeout(key), value);
+            if (value.equals(get(key))) {
+                pexpire(key, ttl);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public Long tryAcquireReadLock(String key, String value, long ttl) {
+        String intentKey = KeyNames.writeIntent(key);
+        String readersKey = KeyNames.readers(key);
+        return atomically(published -> {
+            String owner = get(key);
+            if (owner != null && !owner.equals(value)) {
+                return pttl(key);
+            }
+            String intent = get(intentKey);
+            if (intent != null && !intent.equals(value)) {
+                return pttl(intentKey);
+            }
+            this.<Map<String, Long>>collection(readersKey, Type.ZSET, HashMap::new).put(value, now() + ttl);
+            pexpire(readersKey, ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean releaseReadLock(String key, String value) {
+        String readersKey = KeyNames.readers(key);
+        return atomically(published -> {
+            long now = now();
+            Long expiry = zscore(readersKey, value);
+            zrem(readersKey, value);
+            zremrangebyscore(readersKey, now);
+            if (existing(readersKey, Type.ZSET) == null) {
+                published.add(key);
+            }
+            return expiry != null && expiry > now;
+        });
+    }
+
+    @Override
+    public Long tryAcquireWriteLock(String key, String value, long ttl, long intentLease) {
+        String readersKey = KeyNames.readers(key);
+        String intentKey = KeyNames.writeIntent(key);
+        return atomically(published -> {
+            long now = now();
+            zremrangebyscore(readersKey, now);
+            boolean blocked = false;
+            long wait = 0;
+            Map<String, Long> readers = existing(readersKey, Type.ZSET);
+            if (readers != null) {
+                for (Map.Entry<String, Long> reader : readers.entrySet()) {
+                    if (!reader.getKey().equals(value)) {
+                        blocked = true;
+                        wait = Math.max(wait, reader.getValue() - now);
+                    }
+                }
+            }
+            if (!blocked) {
+                if (live(key) == null) {
+                    set(key, value, ttl);
+                    if (value.equals(get(intentKey))) {
+                        data.remove(intentKey);
+                    }
+                    return null;
+                }
+                wait = pttl(key);
+            }
+            if (intentLease > 0) {
+                String intent = get(intentKey);
+                if (intent == null || intent.equals(value)) {
+                    set(intentKey, value, intentLease);
+                }
+            }
+            return wait;
+        });
+    }
+
+    @Override
+    public void cancelWriteIntent(String key, String value) {
+        String intentKey = KeyNames.writeIntent(key);
+        atomically(published -> {
+            if (value.equals(get(intentKey))) {
+                data.remove(intentKey);
+                published.add(key);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int tryAcquirePermits(String key, String value, int permits, long ttl, List<Integer> requests) {
+        String permitsKey = KeyNames.permits(key);
+        String timeoutKey = KeyNames.permitTimeout(key);
+        return atomically(published -> {
+            long now = now();
+            long used = 0;
+            Map<String, Long> holders = existing(permitsKey, Type.HASH);
+            if (holders != null) {
+                for (Iterator<Map.Entry<String, Long>> iterator = holders.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<String, Long> holder = iterator.next();
+                    Long expiry = zscore(timeoutKey, holder.getKey());
+                    if (!holder.getKey().equals(value) && (expiry == null || expiry <= now)) {
+                        iterator.remove();
+                        zrem(timeoutKey, holder.getKey());
+                    } else {
+                        used += holder.getValue();
+                    }
+                }
+                removeIfEmpty(permitsKey, holders);
+            }
+            long free = permits - used;
+            int granted = 0;
+            for (int requested : requests) {
+                if (granted + requested > free) {
+                    break;
+                }
+                granted += requested;
+            }
+            if (granted > 0) {
+                this.<Map<String, Long>>collection(permitsKey, Type.HASH, HashMap::new).merge(value, (long) granted, Long::sum);
+                this.<Map<String, Long>>collection(timeoutKey, Type.ZSET, HashMap::new).put(value, now + ttl);
+                pexpire(permitsKey, ttl);
+                pexpire(timeoutKey, ttl);
+            }
+            return granted;
+        });
+    }
+
+    @Override
+    public boolean releasePermits(String key, String value, int permits) {
+        String permitsKey = KeyNames.permits(key);
+        return atomically(published -> {
+            Map<String, Long> holders = collection(permitsKey, Type.HASH, HashMap::new);
+            long left = holders.merge(value, (long) -permits, Long::sum);
+            if (left <= 0) {
+                holders.remove(value);
+                removeIfEmpty(permitsKey, holders);
+                zrem(KeyNames.permitTimeout(key), value);
+            }
+            published.add(key);
+            return left >= 0;
+        });
+    }
+
+    @Override
+    public void addConditionWaiter(String key, String waiter, String value, long ttl) {
+        atomically(published -> {
+            collection(key, Type.LIST, ArrayDeque::new).addLast(waiter);
+            set(waiter, value, ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public int signalCondition(String key, boolean all) {
+        return atomically(published -> {
+            int signalled = 0;
+            while (all || signalled < 1) {
+                String waiter = pollFirst(key);
+                if (waiter == null) {
+                    break;
+                }
+                if (get(waiter) != null) {
+                    data.remove(waiter);
+                    published.add(waiter);
+                    signalled++;
+                }
+            }
+            return signalled;
+        });
+    }
+
+    @Override
+    public boolean removeConditionWaiter(String key, String waiter) {
+        return atomically(published -> {
+            boolean removed = lrem(key, 1, waiter) > 0;
+            data.remove(waiter);
+            return removed;
+        });
+    }
+
+    @Override
+    public boolean isConditionWaiting(String waiter) {
+        return atomically(published -> live(waiter) != null);
+    }
+
+    @Override
+    public void publishKey(String key) {
+        deliver(List.of(key));
+    }
+
+    @Override
+    public Cancelable subscribeToKey(String key, Runnable callback) {
+        subscribers.compute(key, (k, callbacks) -> {
+            if (callbacks == null) {
+                callbacks = ConcurrentHashMap.newKeySet();
+            }
+            callbacks.add(callback);
+            return callbacks;
+        });
+        return () -> subscribers.computeIfPresent(key, (k, callbacks) -> {
+            callbacks.remove(callback);
+            return callbacks.isEmpty() ? null : callbacks;
+        });
+    }
+
+    @Override
+    public void close() {
+        purgeTask.cancel(false);
+    }
+
+    /**
+     * Runs {@code script} atomically, then delivers the keys it published.
+     */
+    private <T> T atomically(Function<List<String>, T> script) {
+        List<String> published = new ArrayList<>(0);
+        T result;
+        lock.lock();
+        try {
+            result = script.apply(published);
+        } finally {
+            lock.unlock();
+        }
+        if (!published.isEmpty()) {
+            deliver(published);
+        }
+        return result;
+    }
+
+    private void deliver(List<String> keys) {
+        for (String key : keys) {
+            Set<Runnable> callbacks = subscribers.get(key);
+            if (callbacks == null) {
+                continue;
+            }
+            for (Runnable callback : callbacks) {
+                executor.execute(() -> {
+                    try {
+                        callback.run();
+                    } catch (RuntimeException e) {
+                        logger.error("Error notifying subscriber of {}", key, e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        long now = now();
+        lock.lock();
+        try {
+            data.values().removeIf(entry -> entry.expireAt <= now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    // The helpers below follow the Redis commands of the same name and must be called holding lock.
+
+    private Entry live(String key) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.expireAt <= now()) {
+            data.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private String get(String key) {
+        Entry entry = live(key);
+        return entry != null && entry.type == Type.STRING ? entry.value() : null;
+    }
+
+    private void set(String key, String value, long ttl) {
+        data.put(key, new Entry(Type.STRING, value, now() + ttl));
+    }
+
+    private long pttl(String key) {
+        Entry entry = live(key);
+        if (entry == null) {
+            return -2;
+        }
+        return entry.expireAt == NO_EXPIRY ? -1 : entry.expireAt - now();
+    }
+
+    private void pexpire(String key, long ttl) {
+        Entry entry = live(key);
+        if (entry != null) {
+            entry.expireAt = now() + ttl;
+        }
+    }
+
+    private <C> C existing(String key, Type type) {
+        Entry entry = live(key);
+        return entry != null && entry.type == type ? entry.value() : null;
+    }
+
+    private <C> C collection(String key, Type type, Supplier<C> factory) {
+        Entry entry = live(key);
+        if (entry == null || entry.type != type) {
+            entry = new Entry(type, factory.get(), NO_EXPIRY);
+            data.put(key, entry);
+        }
+        return entry.value();
+    }
+
+    private void removeIfEmpty(String key, Object collection) {
+        boolean empty = collection instanceof Collection<?> c ? c.isEmpty() : ((Map<?, ?>) collection).isEmpty();
+        if (empty) {
+            data.remove(key);
+        }
+    }
+
+    private String peekFirst(String key) {
+        Deque<String> list = existing(key, Type.LIST);
+        return list == null ? null : list.peekFirst();
+    }
+
+    private String pollFirst(String key) {
+        Deque<String> list = existing(key, Type.LIST);
+        if (list == null) {
+            return null;
+        }
+        String first = list.pollFirst();
+        removeIfEmpty(key, list);
+        return first;
+    }
+
+    /**
+     * Removes up to {@code count} occurrences of {@code value}, or all of them if {@code count} is 0.
+     */
+    private int lrem(String key, int count, String value) {
+        Deque<String> list = existing(key, Type.LIST);
+        if (list == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (Iterator<String> iterator = list.iterator(); iterator.hasNext() && (count == 0 || removed < count); ) {
+            if (iterator.next().equals(value)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        removeIfEmpty(key, list);
+        return removed;
+    }
+
+    private Long zscore(String key, String member) {
+        Map<String, Long> scores = existing(key, Type.ZSET);
+        return scores == null ? null : scores.get(member);
+    }
+
+    private void zrem(String key, String member) {
+        Map<String, Long> scores = existing(key, Type.ZSET);
+        if (scores != null) {
+            scores.remove(member);
+            removeIfEmpty(key, scores);
+        }
+    }
+
+    /**
+     * Removes the members scored at most {@code max}.
+     */
+    private void zremrangebyscore(String key, long max) {
+        Map<String, Long> scores = existing(key, Type.ZSET);
+        if (scores != null) {
+            scores.values().removeIf(score -> score <= max);
+            removeIfEmpty(key, scores);
+        }
+    }
+
+    private enum Type {
+        STRING, LIST, SET, HASH, ZSET
+    }
+
+    private static final class Entry {
+        private final Type type;
+        private final Object value;
+        private long expireAt;
+
+        private Entry(Type type, Object value, long expireAt) {
+            this.type = type;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T value() {
+            return (T) value;
+        }
+    }
+}
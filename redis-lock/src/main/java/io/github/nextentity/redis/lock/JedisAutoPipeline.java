@@ -0,0 +1,136 @@
+package io.github.nextentity.redis.lock;
+
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.UnifiedJedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Gathers the commands of concurrent callers into shared Jedis pipelines, so that they take a few connections
+ * and one round trip per pipeline rather than a pooled connection and a round trip each.
+ * <p>
+ * A caller queues its command, then flushes the queue itself if fewer than {@code connections} pipelines are in
+ * flight; otherwise it parks until a pipeline in flight carried its command or finished, in which case it tries
+ * again. Commands queued while pipelines are in flight are thus sent together by the next one, and a caller waits
+ * for at most the pipelines ahead of it.
+ */
+final class JedisAutoPipeline {
+    private static final int MAX_PIPELINE_SIZE = 256;
+
+    private final UnifiedJedis jedis;
+    private final Semaphore connections;
+    private final Queue<Command<?>> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param jedis       Client the pipelines are opened from
+     * @param connections Maximum number of pipelines in flight
+     */
+    JedisAutoPipeline(UnifiedJedis jedis, int connections) {
+        this.jedis = jedis;
+        this.connections = new Semaphore(connections);
+    }
+
+    /**
+     * Runs a command in a shared pipeline and returns its result.
+     *
+     * @param command Adds the command to a pipeline
+     * @return The reply of the command
+     * @throws RuntimeException The error replied to the command, or the failure of its pipeline
+     */
+    <T> T execute(Function<AbstractPipeline, Response<T>> command) {
+        Command<T> pending = new Command<>(command, Thread.currentThread());
+        queue.add(pending);
+        boolean interrupted = false;
+        while (!pending.done) {
+            if (connections.tryAcquire()) {
+                try {
+                    flush();
+                } finally {
+                    connections.release();
+                    // let a queued caller flush what arrived meanwhile
+                    Command<?> next = queue.peek();
+                    if (next != null) {
+                        LockSupport.unpark(next.caller);
+                    }
+                }
+            } else {
+                LockSupport.park(this);
+                // the command is queued already, so finish waiting for it
+                interrupted |= Thread.interrupted();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return pending.result();
+    }
+
+    private void flush() {
+        List<Command<?>> batch = new ArrayList<>();
+        Command<?> command;
+        while (batch.size() < MAX_PIPELINE_SIZE && (command = queue.poll()) != null) {
+            batch.add(command);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        RuntimeException failure = null;
+        try (AbstractPipeline pipeline = jedis.pipelined()) {
+            for (Command<?> queued : batch) {
+                queued.send(pipeline);
+            }
+            pipeline.sync();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (Command<?> queued : batch) {
+            queued.complete(failure);
+        }
+    }
+
+    private static final class Command<T> {
+        private final Function<AbstractPipeline, Response<T>> command;
+        private final Thread caller;
+        private Response<T> response;
+        private T value;
+        private RuntimeException error;
+        private volatile boolean done;
+
+        private Command(Function<AbstractPipeline, Response<T>> command, Thread caller) {
+            this.command = command;
+            this.caller = caller;
+        }
+
+        private void send(AbstractPipeline pipeline) {
+            response = command.apply(pipeline);
+        }
+
+        private void complete(RuntimeException failure) {
+            if (failure != null) {
+                error = failure;
+            } else {
+                try {
+                    value = response.get();
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+            }
+            done = true;
+            LockSupport.unpark(caller);
+        }
+
+        private T result() {
+            if (error != null) {
+                throw error;
+            }
+            return value;
+        }
+    }
+}
@@ -5,26 +5,20 @@ import org.slf4j.LoggerFactory;
 import redis.clients.jedis.JedisPubSub;
 import redis.clients.jedis.UnifiedJedis;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 /**
  * Manages Redis pub/sub for lock notifications.
  */
-public class JedisSubscriber implements AutoCloseable {
+public class JedisSubscriber extends AbstractSubscriber {
     private static final Logger logger = LoggerFactory.getLogger(JedisSubscriber.class);
 
     private final UnifiedJedis jedis;
-    private final Map<String, Set<Runnable>> subscribers = new ConcurrentHashMap<>();
-    private final String channelId;
     private final JedisPubSub listener;
     private final long retryIntervalMillis;
-
-    private volatile boolean isShutdown;
+    // whether the shutdown unsubscribe was sent, guarded by this
+    private boolean unsubscribing;
 
     /**
      * Constructs a JedisSubscriber with the specified parameters.
@@ -34,36 +28,59 @@ public class JedisSubscriber implements AutoCloseable {
      * @param retryIntervalMillis Retry interval in milliseconds for reconnection attempts
      */
     public JedisSubscriber(UnifiedJedis jedis, String channelId, long retryIntervalMillis) {
-        this.jedis = jedis;
-        this.channelId = channelId;
-        this.retryIntervalMillis = retryIntervalMillis;
-        this.listener = new SubscriberListener();
-        startSubscription();
+        this(jedis, channelOption(channelId, retryIntervalMillis));
     }
 
     /**
-     * Subscribes to a key with a callback to be executed when a message is received.
+     * Constructs a JedisSubscriber with the specified options.
      *
-     * @param key      The key to subscribe to
-     * @param callback The callback to execute upon message receipt
-     * @return A cancelable subscription
+     * @param jedis  UnifiedJedis client for Redis operations
+     * @param option Configuration options
      */
-    public SynchronizeSupport.Cancelable addSubscriber(String key, Runnable callback) {
-        if (isShutdown) {
-            throw new IllegalStateException("Subscriber has been shutdown");
-        }
-        Set<Runnable> callbacks = subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
-        callbacks.add(callback);
-        return () -> callbacks.remove(callback);
+    public JedisSubscriber(UnifiedJedis jedis, Option option) {
+        super(option);
+        this.jedis = jedis;
+        this.retryIntervalMillis = option.getRetrySubscribeInterval();
+        this.listener = new SubscriberListener();
+        startSubscription();
     }
 
     /**
-     * Shuts down the subscriber, unsubscribing from the Redis channel.
+     * Shuts down the subscriber, unsubscribing from the Redis channels.
      */
     @Override
     public void close() {
         isShutdown = true;
-        listener.unsubscribe(channelId);
+        unsubscribeAll();
+    }
+
+    /**
+     * Sends the shutdown unsubscribe once. Any reply left unread would be taken by the next command on the pooled connection.
+     */
+    private synchronized void unsubscribeAll() {
+        // not connected yet, for example while Redis is unreachable; a later connection unsubscribes itself
+        if (unsubscribing || !listener.isSubscribed()) {
+            return;
+        }
+        unsubscribing = true;
+        // patterns first, since the subscription ends at the first reply counting no subscriptions left
+        listener.punsubscribe();
+        listener.unsubscribe();
+    }
+
+    @Override
+    protected void sendSubscribe(String... channels) {
+        listener.subscribe(channels);
+    }
+
+    @Override
+    protected void sendUnsubscribe(String channel) {
+        listener.unsubscribe(channel);
+    }
+
+    @Override
+    protected void sendPatternSubscribe(String pattern) {
+        listener.psubscribe(pattern);
     }
 
     /**
@@ -75,32 +92,54 @@ public class JedisSubscriber implements AutoCloseable {
 
     /**
      * Handles the subscription logic, including retrying upon failure.
+     * Only the base and direct channels are subscribed here; partition channels are added once the base is confirmed.
      */
     private void subscribeToChannel() {
         while (!isShutdown) {
             try {
-                jedis.subscribe(listener, channelId);
+                jedis.subscribe(listener, channels.getChannelId(), directChannel);
             } catch (Exception e) {
+                onDisconnected();
                 logger.warn("Subscription error, retrying...", e);
                 LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryIntervalMillis));
             }
         }
     }
 
+    private static Option channelOption(String channelId, long retryIntervalMillis) {
+        Option option = new Option();
+        option.setChannelId(channelId);
+        option.setRetrySubscribeInterval(retryIntervalMillis);
+        return option;
+    }
+
     /**
      * Inner class that extends JedisPubSub to handle Redis messages and subscriptions.
      */
     private class SubscriberListener extends JedisPubSub {
         @Override
-        public void onMessage(String channel, String message) {
-            Set<Runnable> callbacks = subscribers.getOrDefault(message, Collections.emptySet());
-            for (Runnable callback : callbacks) {
-                try {
-                    callback.run();
-                } catch (Exception e) {
-                    logger.error("Error executing callback {}", callback, e);
+        public void onSubscribe(String channel, int subscribedChannels) {
+            synchronized (JedisSubscriber.this) {
+                if (isShutdown) {
+                    unsubscribeAll();
+                    return;
+                }
+                if (channels.getChannelId().equals(channel)) {
+                    onConnected();
+                } else {
+                    onChannelSubscribed(channel);
                 }
             }
         }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            dispatch(message);
+        }
+
+        @Override
+        public void onPMessage(String pattern, String channel, String message) {
+            dispatchKeyspaceEvent(channel, message);
+        }
     }
 }
@@ -3,24 +3,64 @@ package io.github.nextentity.redis.lock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Synchronizes locks through Jedis, on a standalone Redis or on a Redis Cluster.
+ * <p>
+ * On a {@link JedisCluster}, the keys each script takes hash to a single slot: the auxiliary keys of a lock share
+ * the slot of its lock key, see {@link KeyNames}, and the keys of batched renewals and releases are grouped by slot,
+ * with the scripts of all groups pipelined to their nodes in parallel. Releases are published with {@code PUBLISH},
+ * which a cluster broadcasts to all of its nodes, so that a subscriber connected to any node receives them.
+ */
 public class JedisSynchronizeSupport implements SynchronizeSupport {
 
     private static final Logger logger = LoggerFactory.getLogger(JedisSynchronizeSupport.class);
 
     private final UnifiedJedis jedis;
-    private final String channelId;
+    private final ReleaseChannels channels;
     private final JedisSubscriber subscribe;
+    private final LockMetrics metrics;
+    private final ReleaseBatcher releaseBatcher;
+    // null unless commands are auto-pipelined
+    private final JedisAutoPipeline pipeline;
+    private final boolean cluster;
 
     public JedisSynchronizeSupport(UnifiedJedis jedis, String channelId, long retrySubscribeInterval) {
         this.jedis = jedis;
-        this.channelId = channelId;
+        this.cluster = jedis instanceof JedisCluster;
+        this.channels = new ReleaseChannels(channelId, 1);
         this.subscribe = new JedisSubscriber(jedis, channelId, retrySubscribeInterval);
+        this.metrics = LockMetrics.NOOP;
+        this.releaseBatcher = new ReleaseBatcher(0, Option.DEFAULT_MAX_RELEASE_BATCH_SIZE, this::releaseAll);
+        this.pipeline = null;
+    }
+
+    public JedisSynchronizeSupport(UnifiedJedis jedis, Option option) {
+        this.jedis = jedis;
+        this.cluster = jedis instanceof JedisCluster;
+        this.channels = new ReleaseChannels(option.getChannelId(), option.getChannelPartitions());
+        this.subscribe = new JedisSubscriber(jedis, option);
+        this.metrics = option.getMetrics();
+        this.releaseBatcher = new ReleaseBatcher(TimeUnit.MICROSECONDS.toNanos(option.getReleaseBatchWindow()),
+                option.getMaxReleaseBatchSize(), this::releaseAll);
+        int pipelineConnections = option.getAutoPipelineConnections();
+        this.pipeline = pipelineConnections > 0 ? new JedisAutoPipeline(jedis, pipelineConnections) : null;
     }
 
     @Override
@@ -35,33 +75,71 @@ public class JedisSynchronizeSupport implements SynchronizeSupport {
         }
     }
 
+    @Override
+    public List<String> renewIfOwned(Collection<String> keys, String value, long ttl) {
+        List<String> keyList = List.copyOf(keys);
+        List<String> args = List.of(value, Long.toString(ttl));
+        List<List<Integer>> groups = slotGroups(keyList);
+        List<String> lost = new ArrayList<>();
+        for (Object result : evalScriptPerGroup(LockScripts.RENEW_IF_OWNED, keyList, groups, group -> args)) {
+            // an empty Lua table may not be decoded as a list
+            if (result instanceof List<?> keysNotOwned) {
+                for (Object key : keysNotOwned) {
+                    lost.add(key instanceof byte[] bytes ? SafeEncoder.encode(bytes) : (String) key);
+                }
+            }
+        }
+        return lost;
+    }
+
     @Override
     public boolean deleteIfValueEquals(String key, String expectedValue) {
-        String script = """
-                if redis.call('get', KEYS[1]) == ARGV[1] then
-                 return redis.call('del', KEYS[1])
-                else
-                 return 0
-                end""";
+        LuaScript script = LockScripts.DELETE_IF_VALUE_EQUALS;
         try {
-            Object result = jedis.eval(script, Collections.singletonList(key), Collections.singletonList(expectedValue));
+            Object result = evalScript(script, Collections.singletonList(key), Collections.singletonList(expectedValue));
             logger.debug("deleteIfValueEquals result: {}", result);
             return result.equals(1L);
         } catch (Exception e) {
-            logger.warn("Error executing script: {}", script, e);
+            logger.warn("Error executing script: {}", script.getSource(), e);
             return false;
         }
     }
 
+    @Override
+    public boolean releaseIfValueEquals(String key, String expectedValue) {
+        return releaseBatcher.release(key, expectedValue);
+    }
+
+    /**
+     * Releases a batch of keys in a single round trip, publishing the released ones.
+     */
+    private boolean[] releaseAll(List<String> keys, List<String> expectedValues) {
+        List<List<Integer>> groups = slotGroups(keys);
+        List<Object> results = evalScriptPerGroup(LockScripts.RELEASE_ALL_IF_VALUE_EQUALS, keys, groups, group -> {
+            List<String> args = new ArrayList<>(group.size() * 2);
+            for (int i : group) {
+                args.add(expectedValues.get(i));
+            }
+            for (int i : group) {
+                args.add(channels.channelOf(keys.get(i)));
+            }
+            return args;
+        });
+        boolean[] released = new boolean[keys.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            List<Integer> group = groups.get(g);
+            List<?> result = (List<?>) results.get(g);
+            for (int i = 0; i < group.size(); i++) {
+                released[group.get(i)] = Long.valueOf(1L).equals(result.get(i));
+            }
+        }
+        return released;
+    }
+
     @Override
     public Long setIfAbsentOrGetRemainingTTL(String key, String value, long ttl) {
-        String script = """
-                if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
-                 return nil
-                else
-                 return redis.call('pttl', KEYS[1])
-                end""";
-        Object result = jedis.eval(script, Collections.singletonList(key), List.of(value, Long.toString(ttl)));
+        LuaScript script = LockScripts.SET_IF_ABSENT_OR_GET_REMAINING_TTL;
+        Object result = evalScript(script, Collections.singletonList(key), List.of(value, Long.toString(ttl)));
         logger.debug("setIfAbsentOrGetRemainingTTL result: {}", result);
         if (result instanceof Long) {
             return (Long) result;
@@ -73,9 +151,260 @@ public class JedisSynchronizeSupport implements SynchronizeSupport {
         }
     }
 
+    @Override
+    public Long setAllIfAbsentOrGetRemainingTTL(List<String> keys, String value, long ttl) {
+        Object result = evalScript(LockScripts.SET_ALL_IF_ABSENT_OR_GET_REMAINING_TTL, keys, List.of(value, Long.toString(ttl)));
+        logger.debug("setAllIfAbsentOrGetRemainingTTL result: {}", result);
+        return (Long) result;
+    }
+
+    @Override
+    public boolean deleteAllIfValueEquals(List<String> keys, String expectedValue) {
+        LuaScript script = LockScripts.DELETE_ALL_IF_VALUE_EQUALS;
+        try {
+            List<String> args = new ArrayList<>(keys.size() + 1);
+            args.add(expectedValue);
+            for (String key : keys) {
+                args.add(channels.channelOf(key));
+            }
+            Object result = evalScript(script, keys, args);
+            logger.debug("deleteAllIfValueEquals result: {}", result);
+            return result.equals(1L);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public Long tryAcquireFairLock(String key, String value, long ttl, long waiterLease) {
+        Object result = evalScript(LockScripts.ACQUIRE_FAIR_LOCK, fairLockKeys(key),
+                List.of(value, Long.toString(ttl), Long.toString(waiterLease)));
+        logger.debug("tryAcquireFairLock result: {}", result);
+        return (Long) result;
+    }
+
+    @Override
+    public boolean releaseFairLock(String key, String value, long claimLease) {
+        LuaScript script = LockScripts.RELEASE_FAIR_LOCK;
+        try {
+            Object result = evalScript(script, fairLockKeys(key),
+                    List.of(value, Long.toString(claimLease), channels.getDirectChannelPrefix()));
+            logger.debug("releaseFairLock result: {}", result);
+            return result.equals(1L);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean cancelFairLockWait(String key, String value, long ttl) {
+        Object result = evalScript(LockScripts.CANCEL_FAIR_LOCK_WAIT, fairLockKeys(key), List.of(value, Long.toString(ttl)));
+        logger.debug("cancelFairLockWait result: {}", result);
+        return result.equals(1L);
+    }
+
+    @Override
+    public Long tryAcquireReadLock(String key, String value, long ttl) {
+        List<String> keys = List.of(key, KeyNames.readers(key), KeyNames.writeIntent(key));
+        Object result = evalScript(LockScripts.ACQUIRE_READ_LOCK, keys, List.of(value, Long.toString(ttl)));
+        logger.debug("tryAcquireReadLock result: {}", result);
+        return (Long) result;
+    }
+
+    @Override
+    public boolean releaseReadLock(String key, String value) {
+        LuaScript script = LockScripts.RELEASE_READ_LOCK;
+        try {
+            List<String> keys = Collections.singletonList(KeyNames.readers(key));
+            Object result = evalScript(script, keys, List.of(value, channels.channelOf(key), key));
+            logger.debug("releaseReadLock result: {}", result);
+            return result.equals(1L);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public Long tryAcquireWriteLock(String key, String value, long ttl, long intentLease) {
+        List<String> keys = List.of(key, KeyNames.readers(key), KeyNames.writeIntent(key));
+        List<String> args = List.of(value, Long.toString(ttl), Long.toString(intentLease));
+        Object result = evalScript(LockScripts.ACQUIRE_WRITE_LOCK, keys, args);
+        logger.debug("tryAcquireWriteLock result: {}", result);
+        return (Long) result;
+    }
+
+    @Override
+    public void cancelWriteIntent(String key, String value) {
+        List<String> keys = Collections.singletonList(KeyNames.writeIntent(key));
+        Object result = evalScript(LockScripts.CANCEL_WRITE_INTENT, keys, List.of(value, channels.channelOf(key), key));
+        logger.debug("cancelWriteIntent result: {}", result);
+    }
+
+    @Override
+    public int tryAcquirePermits(String key, String value, int permits, long ttl, List<Integer> requests) {
+        List<String> keys = List.of(KeyNames.permits(key), KeyNames.permitTimeout(key));
+        List<String> args = new ArrayList<>(requests.size() + 3);
+        Collections.addAll(args, value, Integer.toString(permits), Long.toString(ttl));
+        for (Integer request : requests) {
+            args.add(request.toString());
+        }
+        Object result = evalScript(LockScripts.ACQUIRE_PERMITS, keys, args);
+        logger.debug("tryAcquirePermits result: {}", result);
+        return ((Long) result).intValue();
+    }
+
+    @Override
+    public boolean releasePermits(String key, String value, int permits) {
+        LuaScript script = LockScripts.RELEASE_PERMITS;
+        try {
+            List<String> keys = List.of(KeyNames.permits(key), KeyNames.permitTimeout(key));
+            Object result = evalScript(script, keys, List.of(value, Integer.toString(permits), channels.channelOf(key), key));
+            logger.debug("releasePermits result: {}", result);
+            return result.equals(1L);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void addConditionWaiter(String key, String waiter, String value, long ttl) {
+        evalScript(LockScripts.ADD_CONDITION_WAITER, List.of(key, waiter), List.of(value, Long.toString(ttl)));
+    }
+
+    @Override
+    public int signalCondition(String key, boolean all) {
+        Object result = evalScript(LockScripts.SIGNAL_CONDITION, Collections.singletonList(key),
+                List.of(all ? "0" : "1", channels.getDirectChannelPrefix()));
+        logger.debug("signalCondition result: {}", result);
+        return ((Long) result).intValue();
+    }
+
+    @Override
+    public boolean removeConditionWaiter(String key, String waiter) {
+        Object result = evalScript(LockScripts.REMOVE_CONDITION_WAITER, List.of(key, waiter), Collections.emptyList());
+        logger.debug("removeConditionWaiter result: {}", result);
+        return result.equals(1L);
+    }
+
+    @Override
+    public boolean isConditionWaiting(String waiter) {
+        return timed("exists", () -> send(j -> j.exists(waiter), p -> p.exists(waiter)));
+    }
+
+    private static List<String> fairLockKeys(String key) {
+        return List.of(key, KeyNames.fairQueue(key), KeyNames.fairTimeout(key));
+    }
+
+    /**
+     * Executes a script by its SHA1 digest, loading it into the script cache on NOSCRIPT.
+     */
+    private Object evalScript(LuaScript script, List<String> keys, List<String> args) {
+        return timed(script.getName(), () -> {
+            try {
+                return send(j -> j.evalsha(script.getSha1(), keys, args), p -> p.evalsha(script.getSha1(), keys, args));
+            } catch (JedisNoScriptException e) {
+                logger.debug("Script {} not cached, loading", script);
+                jedis.scriptLoad(script.getSource(), keys.get(0));
+                return jedis.evalsha(script.getSha1(), keys, args);
+            }
+        });
+    }
+
+    /**
+     * Groups the indexes of keys by the cluster slot of the keys, or returns a single group outside a cluster.
+     */
+    private List<List<Integer>> slotGroups(List<String> keys) {
+        if (!cluster) {
+            List<Integer> all = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                all.add(i);
+            }
+            return List.of(all);
+        }
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            groups.computeIfAbsent(JedisClusterCRC16.getSlot(keys.get(i)), slot -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Executes a multi-key script once per group of keys sharing a slot.
+     * <p>
+     * The scripts of several groups are sent in one cluster pipeline, which writes the scripts of each node to it
+     * and reads the replies of the nodes in parallel.
+     *
+     * @param argsOf Returns the arguments of the script for the indexes of its keys
+     * @return The results of the scripts, in the order of the groups
+     */
+    private List<Object> evalScriptPerGroup(LuaScript script, List<String> keys, List<List<Integer>> groups,
+                                            Function<List<Integer>, List<String>> argsOf) {
+        List<List<String>> groupKeys = new ArrayList<>(groups.size());
+        List<List<String>> groupArgs = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            List<String> slotKeys = new ArrayList<>(group.size());
+            for (int i : group) {
+                slotKeys.add(keys.get(i));
+            }
+            groupKeys.add(slotKeys);
+            groupArgs.add(argsOf.apply(group));
+        }
+        if (groups.size() == 1) {
+            return Collections.singletonList(evalScript(script, groupKeys.get(0), groupArgs.get(0)));
+        }
+        return timed(script.getName(), () -> {
+            List<Response<Object>> responses = new ArrayList<>(groups.size());
+            try (AbstractPipeline pipelined = jedis.pipelined()) {
+                for (int g = 0; g < groups.size(); g++) {
+                    responses.add(pipelined.evalsha(script.getSha1(), groupKeys.get(g), groupArgs.get(g)));
+                }
+                pipelined.sync();
+            }
+            List<Object> results = new ArrayList<>(groups.size());
+            for (int g = 0; g < groups.size(); g++) {
+                try {
+                    results.add(responses.get(g).get());
+                } catch (JedisNoScriptException e) {
+                    // not cached on the node of this slot yet
+                    logger.debug("Script {} not cached, loading", script);
+                    jedis.scriptLoad(script.getSource(), groupKeys.get(g).get(0));
+                    results.add(jedis.evalsha(script.getSha1(), groupKeys.get(g), groupArgs.get(g)));
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Sends a command in a shared pipeline if commands are auto-pipelined, otherwise on a connection of its own.
+     */
+    private <T> T send(Function<UnifiedJedis, T> direct, Function<AbstractPipeline, Response<T>> pipelined) {
+        return pipeline != null ? pipeline.execute(pipelined) : direct.apply(jedis);
+    }
+
+    /**
+     * Runs a Redis command, reporting its round trip to the metrics.
+     */
+    private <T> T timed(String command, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            metrics.recordCommand(command, System.nanoTime() - start, failed);
+        }
+    }
+
     @Override
     public void publishKey(String key) {
-        jedis.publish(channelId, key);
+        String channel = channels.channelOf(key);
+        timed("publish", () -> send(j -> j.publish(channel, key), p -> p.publish(channel, key)));
     }
 
     @Override
@@ -83,6 +412,12 @@ public class JedisSynchronizeSupport implements SynchronizeSupport {
         return subscribe.addSubscriber(key, callback);
     }
 
+    /**
+     * Closes the subscriber. The Jedis client is not closed, as it is owned by the caller.
+     * <p>
+     * The release batcher and the auto-pipeline need no shutdown: they run no threads of their own, and every
+     * queued release or command is sent by one of the callers waiting for it, so none is left parked.
+     */
     @Override
     public void close() {
         subscribe.close();
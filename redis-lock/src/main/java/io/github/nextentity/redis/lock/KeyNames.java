@@ -0,0 +1,111 @@
+package io.github.nextentity.redis.lock;
+
+/**
+ * Naming of the auxiliary Redis keys that belong to a lock key.
+ * <p>
+ * Auxiliary keys hash to the same Redis Cluster slot as their lock key, so that the scripts using them together
+ * can run on Redis Cluster: a lock key without a hash tag is wrapped into one, as in {@code {key}:suffix}, which
+ * hashes like {@code key}; a lock key with a hash tag keeps it, as in {@code {tag}key:suffix}.
+ */
+public final class KeyNames {
+
+    private KeyNames() {
+    }
+
+    /**
+     * Returns the name of an auxiliary key of {@code key}.
+     *
+     * @param key    Lock key
+     * @param suffix Role of the auxiliary key
+     * @return The auxiliary key name
+     */
+    public static String derive(String key, String suffix) {
+        if (key.indexOf('{') < 0 && key.indexOf('}') < 0) {
+            return "{" + key + "}:" + suffix;
+        }
+        // a hash tag is kept as is; a stray brace cannot be wrapped, and such keys only work outside a cluster
+        return key + ":" + suffix;
+    }
+
+    /**
+     * Returns the FIFO list of clients waiting for a fair lock.
+     *
+     * @param key Lock key
+     * @return The queue key name
+     */
+    public static String fairQueue(String key) {
+        return derive(key, "fair-queue");
+    }
+
+    /**
+     * Returns the sorted set holding the lease expiry of each client waiting for a fair lock.
+     *
+     * @param key Lock key
+     * @return The timeout key name
+     */
+    public static String fairTimeout(String key) {
+        return derive(key, "fair-timeout");
+    }
+
+    /**
+     * Returns the sorted set of clients holding a read share of a read-write lock, scored by the expiry of
+     * each share's lease.
+     *
+     * @param key Lock key
+     * @return The readers key name
+     */
+    public static String readers(String key) {
+        return derive(key, "readers");
+    }
+
+    /**
+     * Returns the write intent of a read-write lock, which holds back new readers while a writer waits.
+     *
+     * @param key Lock key
+     * @return The write intent key name
+     */
+    public static String writeIntent(String key) {
+        return derive(key, "write-intent");
+    }
+
+    /**
+     * Returns the hash holding the number of permits of a semaphore each client holds.
+     *
+     * @param key Semaphore key
+     * @return The permits key name
+     */
+    public static String permits(String key) {
+        return derive(key, "permits");
+    }
+
+    /**
+     * Returns the sorted set holding the lease expiry of each client holding permits of a semaphore.
+     *
+     * @param key Semaphore key
+     * @return The timeout key name
+     */
+    public static String permitTimeout(String key) {
+        return derive(key, "permit-timeout");
+    }
+
+    /**
+     * Returns the queue of the clients waiting on a condition of a lock.
+     *
+     * @param key  Lock key
+     * @param name Condition name
+     * @return The condition key name
+     */
+    public static String condition(String key, String name) {
+        return derive(key, "condition:" + name);
+    }
+
+    /**
+     * Returns the key published by a client waiting for a lock whose holder may keep it cached.
+     *
+     * @param key Lock key
+     * @return The wanted key name
+     */
+    public static String wanted(String key) {
+        return derive(key, "wanted");
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+/**
+ * Manages Redis pub/sub for lock notifications over a Lettuce pub/sub connection.
+ * <p>
+ * Lettuce re-establishes the connection and its subscriptions on its own,
+ * so unlike {@link JedisSubscriber} no dedicated subscription thread is needed.
+ */
+public class LettuceSubscriber extends AbstractSubscriber {
+
+    private final StatefulRedisPubSubConnection<String, String> connection;
+
+    /**
+     * Constructs a LettuceSubscriber with the specified parameters.
+     *
+     * @param client RedisClient used to open the pub/sub connection
+     * @param option Configuration options
+     */
+    public LettuceSubscriber(RedisClient client, Option option) {
+        super(option);
+        this.connection = client.connectPubSub();
+        this.connection.addListener(new SubscriberListener());
+        this.connection.sync().subscribe(channels.getChannelId(), directChannel);
+        onConnected();
+    }
+
+    /**
+     * Shuts down the subscriber, unsubscribing from the Redis channels and closing the connection.
+     */
+    @Override
+    public void close() {
+        isShutdown = true;
+        try {
+            connection.sync().unsubscribe();
+            if (keyspaceChannelPattern != null) {
+                connection.sync().punsubscribe();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    protected void sendSubscribe(String... channels) {
+        connection.async().subscribe(channels);
+    }
+
+    @Override
+    protected void sendUnsubscribe(String channel) {
+        connection.async().unsubscribe(channel);
+    }
+
+    @Override
+    protected void sendPatternSubscribe(String pattern) {
+        connection.async().psubscribe(pattern);
+    }
+
+    /**
+     * Listener that dispatches Redis messages to the registered callbacks.
+     */
+    private class SubscriberListener extends RedisPubSubAdapter<String, String> {
+        @Override
+        public void subscribed(String channel, long count) {
+            if (!channels.getChannelId().equals(channel) && !directChannel.equals(channel)) {
+                onChannelSubscribed(channel);
+            }
+        }
+
+        @Override
+        public void message(String channel, String message) {
+            dispatch(message);
+        }
+
+        @Override
+        public void message(String pattern, String channel, String message) {
+            dispatchKeyspaceEvent(channel, message);
+        }
+    }
+}
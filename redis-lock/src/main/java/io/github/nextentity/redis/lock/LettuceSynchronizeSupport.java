@@ -0,0 +1,332 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link SynchronizeSupport} backed by Lettuce.
+ * <p>
+ * All commands share a single multiplexed {@link StatefulRedisConnection}, so concurrent callers
+ * are pipelined over one socket instead of each holding a pooled connection for a full round trip.
+ * Release notifications are received through a separate pub/sub connection.
+ */
+public class LettuceSynchronizeSupport implements SynchronizeSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(LettuceSynchronizeSupport.class);
+
+    private final StatefulRedisConnection<String, String> connection;
+    private final RedisCommands<String, String> commands;
+    private final RedisAsyncCommands<String, String> asyncCommands;
+    private final ReleaseChannels channels;
+    private final LettuceSubscriber subscribe;
+    private final LockMetrics metrics;
+    private final ReleaseBatcher releaseBatcher;
+    // false when deletions reach the waiters without being published
+    private final boolean publishReleases;
+
+    public LettuceSynchronizeSupport(RedisClient client, Option option) {
+        this(client, option, true);
+    }
+
+    LettuceSynchronizeSupport(RedisClient client, Option option, boolean publishReleases) {
+        this.connection = client.connect();
+        this.commands = connection.sync();
+        this.asyncCommands = connection.async();
+        this.channels = new ReleaseChannels(option.getChannelId(), option.getChannelPartitions());
+        this.subscribe = new LettuceSubscriber(client, option);
+        this.metrics = option.getMetrics();
+        this.publishReleases = publishReleases;
+        this.releaseBatcher = new ReleaseBatcher(TimeUnit.MICROSECONDS.toNanos(option.getReleaseBatchWindow()),
+                option.getMaxReleaseBatchSize(), this::releaseAll);
+    }
+
+    @Override
+    public void batchSetTimeToLive(Collection<String> keys, long milliseconds) {
+        List<RedisFuture<Boolean>> futures = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            futures.add(asyncCommands.pexpire(key, milliseconds));
+        }
+        try {
+            Duration timeout = connection.getTimeout();
+            if (!LettuceFutures.awaitAll(timeout, futures.toArray(new RedisFuture[0]))) {
+                logger.error("Timed out setting TTL for keys: {}", keys);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to set TTL for keys: {}", keys, e);
+        }
+    }
+
+    @Override
+    public List<String> renewIfOwned(Collection<String> keys, String value, long ttl) {
+        return evalScript(LockScripts.RENEW_IF_OWNED, ScriptOutputType.MULTI,
+                keys.toArray(new String[0]), value, Long.toString(ttl));
+    }
+
+    @Override
+    public boolean deleteIfValueEquals(String key, String expectedValue) {
+        LuaScript script = LockScripts.DELETE_IF_VALUE_EQUALS;
+        try {
+            Long result = evalScript(script, new String[]{key}, expectedValue);
+            logger.debug("deleteIfValueEquals result: {}", result);
+            return Long.valueOf(1L).equals(result);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean releaseIfValueEquals(String key, String expectedValue) {
+        return releaseBatcher.release(key, expectedValue);
+    }
+
+    /**
+     * Releases a batch of keys in a single round trip, publishing the released ones unless deletions are notified.
+     */
+    private boolean[] releaseAll(List<String> keys, List<String> expectedValues) {
+        List<String> args = new ArrayList<>(expectedValues);
+        if (publishReleases) {
+            for (String key : keys) {
+                args.add(channels.channelOf(key));
+            }
+        }
+        List<Long> result = evalScript(LockScripts.RELEASE_ALL_IF_VALUE_EQUALS, ScriptOutputType.MULTI,
+                keys.toArray(new String[0]), args.toArray(new String[0]));
+        boolean[] released = new boolean[keys.size()];
+        for (int i = 0; i < released.length; i++) {
+            released[i] = Long.valueOf(1L).equals(result.get(i));
+        }
+        return released;
+    }
+
+    @Override
+    public Long setIfAbsentOrGetRemainingTTL(String key, String value, long ttl) {
+        LuaScript script = LockScripts.SET_IF_ABSENT_OR_GET_REMAINING_TTL;
+        Long result = evalScript(script, new String[]{key}, value, Long.toString(ttl));
+        logger.debug("setIfAbsentOrGetRemainingTTL result: {}", result);
+        if (result == null) {
+            logger.debug("Key set successfully");
+        }
+        return result;
+    }
+
+    @Override
+    public Long setAllIfAbsentOrGetRemainingTTL(List<String> keys, String value, long ttl) {
+        Long result = evalScript(LockScripts.SET_ALL_IF_ABSENT_OR_GET_REMAINING_TTL, keys.toArray(new String[0]),
+                value, Long.toString(ttl));
+        logger.debug("setAllIfAbsentOrGetRemainingTTL result: {}", result);
+        return result;
+    }
+
+    @Override
+    public boolean deleteAllIfValueEquals(List<String> keys, String expectedValue) {
+        LuaScript script = LockScripts.DELETE_ALL_IF_VALUE_EQUALS;
+        try {
+            String[] args = new String[keys.size() + 1];
+            args[0] = expectedValue;
+            for (int i = 0; i < keys.size(); i++) {
+                args[i + 1] = channels.channelOf(keys.get(i));
+            }
+            Long result = evalScript(script, keys.toArray(new String[0]), args);
+            logger.debug("deleteAllIfValueEquals result: {}", result);
+            return Long.valueOf(1L).equals(result);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public Long tryAcquireFairLock(String key, String value, long ttl, long waiterLease) {
+        Long result = evalScript(LockScripts.ACQUIRE_FAIR_LOCK, fairLockKeys(key),
+                value, Long.toString(ttl), Long.toString(waiterLease));
+        logger.debug("tryAcquireFairLock result: {}", result);
+        return result;
+    }
+
+    @Override
+    public boolean releaseFairLock(String key, String value, long claimLease) {
+        LuaScript script = LockScripts.RELEASE_FAIR_LOCK;
+        try {
+            Long result = evalScript(script, fairLockKeys(key),
+                    value, Long.toString(claimLease), channels.getDirectChannelPrefix());
+            logger.debug("releaseFairLock result: {}", result);
+            return Long.valueOf(1L).equals(result);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean cancelFairLockWait(String key, String value, long ttl) {
+        Long result = evalScript(LockScripts.CANCEL_FAIR_LOCK_WAIT, fairLockKeys(key), value, Long.toString(ttl));
+        logger.debug("cancelFairLockWait result: {}", result);
+        return Long.valueOf(1L).equals(result);
+    }
+
+    @Override
+    public Long tryAcquireReadLock(String key, String value, long ttl) {
+        String[] keys = {key, KeyNames.readers(key), KeyNames.writeIntent(key)};
+        Long result = evalScript(LockScripts.ACQUIRE_READ_LOCK, keys, value, Long.toString(ttl));
+        logger.debug("tryAcquireReadLock result: {}", result);
+        return result;
+    }
+
+    @Override
+    public boolean releaseReadLock(String key, String value) {
+        LuaScript script = LockScripts.RELEASE_READ_LOCK;
+        try {
+            String[] keys = {KeyNames.readers(key)};
+            Long result = evalScript(script, keys, value, channels.channelOf(key), key);
+            logger.debug("releaseReadLock result: {}", result);
+            return Long.valueOf(1L).equals(result);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public Long tryAcquireWriteLock(String key, String value, long ttl, long intentLease) {
+        String[] keys = {key, KeyNames.readers(key), KeyNames.writeIntent(key)};
+        Long result = evalScript(LockScripts.ACQUIRE_WRITE_LOCK, keys,
+                value, Long.toString(ttl), Long.toString(intentLease));
+        logger.debug("tryAcquireWriteLock result: {}", result);
+        return result;
+    }
+
+    @Override
+    public void cancelWriteIntent(String key, String value) {
+        String[] keys = {KeyNames.writeIntent(key)};
+        Long result = evalScript(LockScripts.CANCEL_WRITE_INTENT, keys, value, channels.channelOf(key), key);
+        logger.debug("cancelWriteIntent result: {}", result);
+    }
+
+    @Override
+    public int tryAcquirePermits(String key, String value, int permits, long ttl, List<Integer> requests) {
+        String[] keys = {KeyNames.permits(key), KeyNames.permitTimeout(key)};
+        String[] args = new String[requests.size() + 3];
+        args[0] = value;
+        args[1] = Integer.toString(permits);
+        args[2] = Long.toString(ttl);
+        for (int i = 0; i < requests.size(); i++) {
+            args[i + 3] = requests.get(i).toString();
+        }
+        Long result = evalScript(LockScripts.ACQUIRE_PERMITS, keys, args);
+        logger.debug("tryAcquirePermits result: {}", result);
+        return result.intValue();
+    }
+
+    @Override
+    public boolean releasePermits(String key, String value, int permits) {
+        LuaScript script = LockScripts.RELEASE_PERMITS;
+        try {
+            String[] keys = {KeyNames.permits(key), KeyNames.permitTimeout(key)};
+            Long result = evalScript(script, keys, value, Integer.toString(permits), channels.channelOf(key), key);
+            logger.debug("releasePermits result: {}", result);
+            return Long.valueOf(1L).equals(result);
+        } catch (Exception e) {
+            logger.warn("Error executing script: {}", script.getSource(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void addConditionWaiter(String key, String waiter, String value, long ttl) {
+        evalScript(LockScripts.ADD_CONDITION_WAITER, new String[]{key, waiter}, value, Long.toString(ttl));
+    }
+
+    @Override
+    public int signalCondition(String key, boolean all) {
+        Long result = evalScript(LockScripts.SIGNAL_CONDITION, new String[]{key}, all ? "0" : "1",
+                channels.getDirectChannelPrefix());
+        logger.debug("signalCondition result: {}", result);
+        return result.intValue();
+    }
+
+    @Override
+    public boolean removeConditionWaiter(String key, String waiter) {
+        Long result = evalScript(LockScripts.REMOVE_CONDITION_WAITER, new String[]{key, waiter});
+        logger.debug("removeConditionWaiter result: {}", result);
+        return Long.valueOf(1L).equals(result);
+    }
+
+    @Override
+    public boolean isConditionWaiting(String waiter) {
+        return timed("exists", () -> commands.exists(waiter)) > 0;
+    }
+
+    private static String[] fairLockKeys(String key) {
+        return new String[]{key, KeyNames.fairQueue(key), KeyNames.fairTimeout(key)};
+    }
+
+    /**
+     * Executes a script returning an integer by its SHA1 digest, loading it into the script cache on NOSCRIPT.
+     */
+    private Long evalScript(LuaScript script, String[] keys, String... args) {
+        return evalScript(script, ScriptOutputType.INTEGER, keys, args);
+    }
+
+    private <T> T evalScript(LuaScript script, ScriptOutputType type, String[] keys, String... args) {
+        return timed(script.getName(), () -> {
+            try {
+                return commands.<T>evalsha(script.getSha1(), type, keys, args);
+            } catch (RedisNoScriptException e) {
+                logger.debug("Script {} not cached, loading", script);
+                commands.scriptLoad(script.getSource());
+                return commands.<T>evalsha(script.getSha1(), type, keys, args);
+            }
+        });
+    }
+
+    /**
+     * Runs a Redis command, reporting its round trip to the metrics.
+     */
+    private <T> T timed(String command, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            metrics.recordCommand(command, System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public void publishKey(String key) {
+        timed("publish", () -> commands.publish(channels.channelOf(key), key));
+    }
+
+    @Override
+    public Cancelable subscribeToKey(String key, Runnable callback) {
+        return subscribe.addSubscriber(key, callback);
+    }
+
+    @Override
+    public void close() {
+        try (LettuceSubscriber subscriber = this.subscribe) {
+            logger.debug("Closing subscriber: {}", subscriber);
+        } finally {
+            connection.close();
+        }
+    }
+}
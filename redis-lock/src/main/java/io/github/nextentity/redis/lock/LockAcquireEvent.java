@@ -0,0 +1,44 @@
+package io.github.nextentity.redis.lock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event of an acquisition of a distributed lock in Redis, lasting from the first attempt
+ * until the lock was acquired or the caller gave up.
+ */
+@Name("io.github.nextentity.redis.lock.LockAcquire")
+@Label("Lock Acquire")
+@Category("Redis Lock")
+@Description("Acquisition of a distributed lock, including the time spent waiting for it")
+@StackTrace(false)
+@Threshold("10 ms")
+final class LockAcquireEvent extends jdk.jfr.Event {
+
+    @Label("Key")
+    @Description("The lock key, or the keys of a multi-key lock joined by commas")
+    String key;
+
+    @Label("Acquired")
+    boolean acquired;
+
+    @Label("Retries")
+    int retries;
+
+    /**
+     * Ends the event and commits it if it is enabled and exceeds its threshold.
+     */
+    void complete(String key, boolean acquired, int attempts) {
+        end();
+        if (shouldCommit()) {
+            this.key = key;
+            this.acquired = acquired;
+            this.retries = attempts - 1;
+            commit();
+        }
+    }
+}
@@ -2,19 +2,38 @@ package io.github.nextentity.redis.lock;
 
 import io.github.nextentity.redis.lock.cache.ReferenceType;
 import io.github.nextentity.redis.lock.cache.ReferenceValueMap;
+import io.lettuce.core.RedisClient;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.UnifiedJedis;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class LockFactory implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(JedisSubscriber.class);
 
     // Cache to store locks
     private final Map<String, Lock> cache;
+    // Cache to store fair locks
+    private final Map<String, Lock> fairCache = new ReferenceValueMap<>(ReferenceType.WEAK);
+    // Cache to store read-write locks
+    private final Map<String, ReadWriteLock> readWriteCache = new ReferenceValueMap<>(ReferenceType.WEAK);
+    // Cache to store asynchronous locks
+    private final Map<String, AsyncLock> asyncCache = new ReferenceValueMap<>(ReferenceType.WEAK);
+    // Cache to store multi-key locks by their canonical keys
+    private final Map<List<String>, Lock> multiCache = new ReferenceValueMap<>(ReferenceType.WEAK);
+    // Local locks of the keys of multi-key locks, shared between multi-key locks with common keys
+    private final Map<String, ReentrantLock> multiLocalLocks = new ReferenceValueMap<>(ReferenceType.WEAK);
+    // Cache to store semaphores
+    private final Map<String, RedisSemaphore> semaphoreCache = new ReferenceValueMap<>(ReferenceType.WEAK);
     // Options for configuring lock behavior
     private final Option option;
     // Support for synchronizing Redis operations
@@ -46,6 +65,108 @@ public class LockFactory implements AutoCloseable {
         return cache.computeIfAbsent(key, this::createLock);
     }
 
+    /**
+     * Get a fair lock for the specified key, creating it if necessary.
+     * <p>
+     * Waiters acquire a fair lock in FIFO order across nodes, and on unlock it is handed directly
+     * to the next waiting node. A key must not be used with both {@link #get(String)} and this method.
+     *
+     * @param key The key for the lock
+     * @return The fair lock associated with the key
+     * @throws UnsupportedOperationException if the synchronize support does not implement fair locks
+     */
+    public Lock getFairLock(@NotNull String key) {
+        checkSupported(SynchronizeSupport.Feature.FAIR_LOCKS);
+        return fairCache.computeIfAbsent(key, this::createFairLock);
+    }
+
+    /**
+     * Get a read-write lock for the specified key, creating it if necessary.
+     * <p>
+     * The write lock is held on {@code key} itself, so a key must not also be used with {@link #get(String)}.
+     *
+     * @param key The key for the lock
+     * @return The read-write lock associated with the key
+     * @throws UnsupportedOperationException if the synchronize support does not implement read-write locks
+     */
+    public ReadWriteLock getReadWriteLock(@NotNull String key) {
+        checkSupported(SynchronizeSupport.Feature.READ_WRITE_LOCKS);
+        return readWriteCache.computeIfAbsent(key, this::createReadWriteLock);
+    }
+
+    /**
+     * Get a lock over several keys, creating it if necessary.
+     * <p>
+     * All keys are acquired together, in a single round trip, or none of them. Keys are taken in canonical order,
+     * so the order in which they are passed does not matter and callers cannot deadlock on each other.
+     * On Redis Cluster all keys must hash to the same slot, for example by sharing a hash tag as in {@code {order}:1}.
+     *
+     * @param keys The keys to lock
+     * @return The lock associated with the keys
+     * @throws IllegalArgumentException      if {@code keys} is empty
+     * @throws UnsupportedOperationException if the synchronize support does not implement multi-key locks
+     */
+    public Lock getMultiLock(@NotNull Collection<String> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("keys must not be empty");
+        }
+        checkSupported(SynchronizeSupport.Feature.MULTI_KEY_LOCKS);
+        List<String> canonicalKeys = List.copyOf(new TreeSet<>(keys));
+        return multiCache.computeIfAbsent(canonicalKeys, this::createMultiLock);
+    }
+
+    /**
+     * Get an asynchronous lock for the specified key, creating it if necessary.
+     * <p>
+     * A key must not be used with both {@link #get(String)} and this method.
+     *
+     * @param key The key for the lock
+     * @return The asynchronous lock associated with the key
+     */
+    public AsyncLock getAsyncLock(@NotNull String key) {
+        return asyncCache.computeIfAbsent(key, this::createAsyncLock);
+    }
+
+    /**
+     * Get a semaphore with the specified number of permits for the key, creating it if necessary.
+     * <p>
+     * All nodes must use the same number of permits for a key.
+     *
+     * @param key     The key for the semaphore
+     * @param permits The total number of permits
+     * @return The semaphore associated with the key
+     * @throws IllegalArgumentException      if the semaphore was already created with a different number of permits
+     * @throws UnsupportedOperationException if the synchronize support does not implement semaphores
+     */
+    public RedisSemaphore getSemaphore(@NotNull String key, int permits) {
+        checkSupported(SynchronizeSupport.Feature.SEMAPHORES);
+        RedisSemaphore semaphore = semaphoreCache.computeIfAbsent(key,
+                k -> new RedisSemaphore(synchronizeSupport, lockKeyManager, k, permits, option));
+        if (semaphore.getPermits() != permits) {
+            throw new IllegalArgumentException("Semaphore " + key + " has " + semaphore.getPermits() + " permits");
+        }
+        return semaphore;
+    }
+
+    /**
+     * Adds a listener notified when a lock held through this factory is found to be lost during renewal,
+     * so that its holder can stop the work it guards.
+     *
+     * @param listener The listener
+     */
+    public void addLockLostListener(@NotNull LockLostListener listener) {
+        lockKeyManager.addListener(listener);
+    }
+
+    /**
+     * Removes a listener added by {@link #addLockLostListener(LockLostListener)}.
+     *
+     * @param listener The listener
+     */
+    public void removeLockLostListener(@NotNull LockLostListener listener) {
+        lockKeyManager.removeListener(listener);
+    }
+
     /**
      * Static factory method to create a LockFactory with default options.
      *
@@ -64,7 +185,119 @@ public class LockFactory implements AutoCloseable {
      * @return A new instance of LockFactory
      */
     public static LockFactory of(Option option, UnifiedJedis jedis) {
-        SynchronizeSupport support = new JedisSynchronizeSupport(jedis, option.getChannelId(), option.getRetrySubscribeInterval());
+        SynchronizeSupport support = new JedisSynchronizeSupport(jedis, option);
+        ReferenceValueMap<String, Lock> cache = new ReferenceValueMap<>(ReferenceType.WEAK);
+        return new LockFactory(cache, option, support);
+    }
+
+    /**
+     * Static factory method to create a LockFactory over independent Redis instances with default options.
+     *
+     * @param instances The UnifiedJedis client of each instance
+     * @return A new instance of LockFactory
+     * @see #ofQuorum(Option, List)
+     */
+    public static LockFactory ofQuorum(List<? extends UnifiedJedis> instances) {
+        return ofQuorum(new Option(), instances);
+    }
+
+    /**
+     * Static factory method to create a LockFactory over independent Redis instances with specified options.
+     * <p>
+     * A lock is held once a majority of the instances granted it, see {@link QuorumSynchronizeSupport}.
+     * Fair locks, read-write locks, semaphores and conditions are not supported: requesting one throws
+     * {@link UnsupportedOperationException}.
+     *
+     * @param option    The configuration options
+     * @param instances The UnifiedJedis client of each instance
+     * @return A new instance of LockFactory
+     */
+    public static LockFactory ofQuorum(Option option, List<? extends UnifiedJedis> instances) {
+        List<SynchronizeSupport> supports = new ArrayList<>(instances.size());
+        for (UnifiedJedis jedis : instances) {
+            supports.add(new JedisSynchronizeSupport(jedis, option));
+        }
+        SynchronizeSupport support = new QuorumSynchronizeSupport(supports, option);
+        ReferenceValueMap<String, Lock> cache = new ReferenceValueMap<>(ReferenceType.WEAK);
+        return new LockFactory(cache, option, support);
+    }
+
+    /**
+     * Static factory method to create a LockFactory backed by Lettuce with default options.
+     *
+     * @param client The Lettuce RedisClient
+     * @return A new instance of LockFactory
+     */
+    public static LockFactory of(RedisClient client) {
+        return of(new Option(), client);
+    }
+
+    /**
+     * Static factory method to create a LockFactory backed by Lettuce with specified options.
+     * <p>
+     * All lock commands share one multiplexed connection opened from {@code client}.
+     *
+     * @param option The configuration options
+     * @param client The Lettuce RedisClient
+     * @return A new instance of LockFactory
+     */
+    public static LockFactory of(Option option, RedisClient client) {
+        SynchronizeSupport support = new LettuceSynchronizeSupport(client, option);
+        ReferenceValueMap<String, Lock> cache = new ReferenceValueMap<>(ReferenceType.WEAK);
+        return new LockFactory(cache, option, support);
+    }
+
+    /**
+     * Static factory method to create a LockFactory backed by Lettuce and Redis client-side tracking,
+     * with default options.
+     *
+     * @param client The Lettuce RedisClient
+     * @return A new instance of LockFactory
+     * @see #ofTracking(Option, RedisClient)
+     */
+    public static LockFactory ofTracking(RedisClient client) {
+        return ofTracking(new Option(), client);
+    }
+
+    /**
+     * Static factory method to create a LockFactory backed by Lettuce and Redis client-side tracking,
+     * with specified options.
+     * <p>
+     * Waiters are woken by Redis when a lock key is deleted or expires, so unlocking does not publish the release,
+     * see {@link TrackingSynchronizeSupport}. Requires Redis 6 or later. All nodes sharing locks must use tracking,
+     * since nodes created by the other factory methods wait for published releases.
+     *
+     * @param option The configuration options
+     * @param client The Lettuce RedisClient
+     * @return A new instance of LockFactory
+     */
+    public static LockFactory ofTracking(Option option, RedisClient client) {
+        SynchronizeSupport support = new TrackingSynchronizeSupport(client, option);
+        ReferenceValueMap<String, Lock> cache = new ReferenceValueMap<>(ReferenceType.WEAK);
+        return new LockFactory(cache, option, support);
+    }
+
+    /**
+     * Static factory method to create a LockFactory keeping all locks in process memory, with default options.
+     *
+     * @return A new instance of LockFactory
+     * @see #ofInMemory(Option)
+     */
+    public static LockFactory ofInMemory() {
+        return ofInMemory(new Option());
+    }
+
+    /**
+     * Static factory method to create a LockFactory keeping all locks in process memory, with specified options.
+     * <p>
+     * The locks only exclude threads of this process, see {@link InMemorySynchronizeSupport}. This suits
+     * single-node deployments and tests that should run without a Redis server.
+     *
+     * @param option The configuration options
+     * @return A new instance of LockFactory
+     */
+    public static LockFactory ofInMemory(Option option) {
+        SynchronizeSupport support = new InMemorySynchronizeSupport(option);
         ReferenceValueMap<String, Lock> cache = new ReferenceValueMap<>(ReferenceType.WEAK);
         return new LockFactory(cache, option, support);
     }
@@ -75,9 +308,62 @@ public class LockFactory implements AutoCloseable {
      * @param key The key for the lock
      * @return The newly created lock
      */
+    private void checkSupported(SynchronizeSupport.Feature feature) {
+        if (!synchronizeSupport.isSupported(feature)) {
+            throw feature.unsupportedBy(synchronizeSupport);
+        }
+    }
+
     private Lock createLock(String key) {
         LockSynchronizer synchronizer = new LockSynchronizer(synchronizeSupport, lockKeyManager, key, option);
-        return new RedisLock(synchronizer, option.getCommandAsyncExecutor(), option.getMaxReleaseDelay());
+        return new RedisLock(synchronizer, option);
+    }
+
+    /**
+     * Create a new fair lock for the specified key.
+     *
+     * @param key The key for the lock
+     * @return The newly created fair lock
+     */
+    private Lock createFairLock(String key) {
+        LockSynchronizer synchronizer = new FairLockSynchronizer(synchronizeSupport, lockKeyManager, key, option);
+        return new RedisLock(synchronizer, option.getCommandAsyncExecutor(), option.getMaxReleaseDelay(), true);
+    }
+
+    /**
+     * Create a new lock over the specified keys.
+     *
+     * @param keys The keys for the lock, in canonical order
+     * @return The newly created multi-key lock
+     */
+    private Lock createMultiLock(List<String> keys) {
+        List<ReentrantLock> localLocks = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            localLocks.add(multiLocalLocks.computeIfAbsent(key, k -> new ReentrantLock()));
+        }
+        return new RedisMultiLock(localLocks, new MultiLockSynchronizer(synchronizeSupport, lockKeyManager, keys, option));
+    }
+
+    /**
+     * Create a new asynchronous lock for the specified key.
+     *
+     * @param key The key for the lock
+     * @return The newly created asynchronous lock
+     */
+    private AsyncLock createAsyncLock(String key) {
+        return new RedisAsyncLock(new LockSynchronizer(synchronizeSupport, lockKeyManager, key, option), option);
+    }
+
+    /**
+     * Create a new read-write lock for the specified key.
+     *
+     * @param key The key for the lock
+     * @return The newly created read-write lock
+     */
+    private ReadWriteLock createReadWriteLock(String key) {
+        LockSynchronizer readSynchronizer = new ReadLockSynchronizer(synchronizeSupport, lockKeyManager, key, option);
+        LockSynchronizer writeSynchronizer = new WriteLockSynchronizer(synchronizeSupport, lockKeyManager, key, option);
+        return new RedisReadWriteLock(readSynchronizer, writeSynchronizer);
     }
 
     /**
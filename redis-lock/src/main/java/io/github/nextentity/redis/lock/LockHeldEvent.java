@@ -0,0 +1,36 @@
+package io.github.nextentity.redis.lock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event of the time a distributed lock was held in Redis by this client, from its acquisition
+ * until its release. It covers all local holders in between, as the lock is handed over locally.
+ */
+@Name("io.github.nextentity.redis.lock.LockHeld")
+@Label("Lock Held")
+@Category("Redis Lock")
+@Description("Time a distributed lock was held by this client")
+@StackTrace(false)
+@Threshold("100 ms")
+final class LockHeldEvent extends jdk.jfr.Event {
+
+    @Label("Key")
+    @Description("The lock key, or the keys of a multi-key lock joined by commas")
+    String key;
+
+    /**
+     * Ends the event and commits it if it is enabled and exceeds its threshold.
+     */
+    void complete(String key) {
+        end();
+        if (shouldCommit()) {
+            this.key = key;
+            commit();
+        }
+    }
+}
@@ -3,23 +3,68 @@ package io.github.nextentity.redis.lock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Monitors and manages the renewal of lock keys to ensure they remain valid.
+ * <p>
+ * Keys are only renewed while they are still owned by this client. Keys found to be no longer owned
+ * are dropped, and the locks they belong to are reported to the {@link LockLostListener}s.
+ * <p>
+ * Keys are renewed on a hashed timing wheel rather than all at once: the shortest renewal interval is divided into
+ * {@value #WHEEL_SIZE} ticks, a key is placed into the bucket of the tick its renewal is due in, and each tick renews
+ * the keys of its bucket, a renewal interval after they were added or last renewed. Renewals are thus spread over the
+ * interval as acquisitions are, and a key is never renewed right after it was taken.
+ * <p>
+ * With {@link Option#isAdaptiveLease()} set, the hold times of locks are tracked, and {@link #timeToLiveOf(String)}
+ * picks the TTL of a lock from them. A key is renewed after the same share of its TTL as
+ * {@code renewalInterval} is of {@code keyTimeToLive}.
  */
 public class LockKeyManager implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(LockKeyManager.class);
 
+    /**
+     * Number of ticks per shortest renewal interval, and of buckets in the wheel
+     */
+    static final int WHEEL_SIZE = 32;
+
+    /**
+     * Maximum number of keys renewed in a single round trip, so that a large bucket does not block Redis for long
+     */
+    private static final int MAX_RENEWAL_BATCH_SIZE = 1000;
+
     private final SynchronizeSupport synchronizeSupport;
-    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final List<LockLostListener> listeners = new CopyOnWriteArrayList<>();
+    private final String clientId;
     private final long timeToLive;
+    private final LockMetrics metrics;
+    // share of the TTL after which a key is renewed
+    private final double renewalRatio;
+    // null unless leases are adaptive
+    private final HoldTimeStatistics holdTimes;
+    private final Function<String, String> holdTimeGroup;
+    private final long minTimeToLive;
+    private final long maxTimeToLive;
+    private final long tickMillis;
+    private final Set<Lease>[] wheel;
     private final ScheduledFuture<?> renewalTask;
 
+    // bucket renewed by the next tick
+    private volatile int cursor;
+    // number of ticks started, written by the tick thread only, before it advances the cursor
+    private volatile long tickCount;
+
     /**
      * Constructs a LockKeyManager with the provided SynchronizeSupport and options.
      *
@@ -28,30 +73,210 @@ public class LockKeyManager implements AutoCloseable {
      */
     public LockKeyManager(SynchronizeSupport synchronizeSupport, Option option) {
         this.synchronizeSupport = synchronizeSupport;
+        this.clientId = option.getClientId();
         this.timeToLive = option.getKeyTimeToLive();
-        long renewalInterval = option.getRenewalInterval();
+        this.metrics = option.getMetrics();
+        this.renewalRatio = (double) option.getRenewalInterval() / timeToLive;
+        if (option.isAdaptiveLease()) {
+            if (option.getMinKeyTimeToLive() > option.getMaxKeyTimeToLive()) {
+                throw new IllegalArgumentException("minKeyTimeToLive must not exceed maxKeyTimeToLive");
+            }
+            this.holdTimes = new HoldTimeStatistics();
+            this.holdTimeGroup = option.getHoldTimeGroup() != null ? option.getHoldTimeGroup() : Function.identity();
+            this.minTimeToLive = Math.min(option.getMinKeyTimeToLive(), timeToLive);
+            this.maxTimeToLive = option.getMaxKeyTimeToLive();
+        } else {
+            this.holdTimes = null;
+            this.holdTimeGroup = null;
+            this.minTimeToLive = timeToLive;
+            this.maxTimeToLive = timeToLive;
+        }
+        // at least a millisecond per tick, and a revolution no longer than the shortest renewal interval
+        this.tickMillis = Math.max(1, renewalDelayOf(minTimeToLive) / WHEEL_SIZE);
+        @SuppressWarnings("unchecked")
+        Set<Lease>[] wheel = new Set[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.wheel = wheel;
         this.renewalTask = option.getScheduler()
-                .scheduleAtFixedRate(this::renewKeys, renewalInterval, renewalInterval, TimeUnit.MILLISECONDS);
+                .scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Renews the time-to-live (TTL) for all managed keys.
+     * Returns the TTL to acquire a lock with.
+     * <p>
+     * With adaptive leases, this is long enough for the lock to be released before its first renewal is due
+     * if it is held about as long as it used to be, within {@code minKeyTimeToLive} and {@code maxKeyTimeToLive}.
+     * Otherwise, or until a hold time of the lock was recorded, this is {@code keyTimeToLive}.
+     *
+     * @param lockKey The lock key
+     * @return The TTL in milliseconds
      */
-    private void renewKeys() {
-        if (keys.isEmpty()) {
+    public long timeToLiveOf(String lockKey) {
+        if (holdTimes == null) {
+            return timeToLive;
+        }
+        long holdTime = holdTimes.upperHoldTime(holdTimeGroup.apply(lockKey));
+        if (holdTime < 0) {
+            return timeToLive;
+        }
+        long ttl = (long) Math.ceil(holdTime / renewalRatio);
+        return Math.min(maxTimeToLive, Math.max(minTimeToLive, ttl));
+    }
+
+    /**
+     * Records for how long a lock was held, if leases are adaptive.
+     *
+     * @param lockKey  The lock key
+     * @param holdTime The hold time in milliseconds
+     */
+    public void recordHoldTime(String lockKey, long holdTime) {
+        if (holdTimes != null) {
+            holdTimes.record(holdTimeGroup.apply(lockKey), holdTime);
+        }
+    }
+
+    private long renewalDelayOf(long ttl) {
+        return (long) (ttl * renewalRatio);
+    }
+
+    /**
+     * Advances the wheel, renewing the due keys of the bucket it passes.
+     */
+    private void tick() {
+        long tick = ++tickCount;
+        int bucket = cursor;
+        cursor = (bucket + 1) % WHEEL_SIZE;
+        if (wheel[bucket].isEmpty()) {
             return;
         }
-        logger.debug("Renewing TTL for keys: {}", keys);
-        synchronizeSupport.batchSetTimeToLive(keys, timeToLive);
+        Map<Long, Map<String, Lease>> dueByTtl = new HashMap<>();
+        for (Lease lease : wheel[bucket]) {
+            if (leases.get(lease.key) != lease) {
+                // removed or replaced while it was being placed
+                wheel[bucket].remove(lease);
+                continue;
+            }
+            if (lease.scheduledTick == tick && lease.passedBucket == bucket) {
+                // placed during this tick relative to this very pass, so not due before the next one
+                continue;
+            }
+            if (lease.rounds > 0) {
+                lease.rounds--;
+                continue;
+            }
+            schedule(lease, bucket);
+            Map<String, Lease> due = dueByTtl.computeIfAbsent(lease.ttl, ttl -> new HashMap<>());
+            due.put(lease.key, lease);
+            if (due.size() == MAX_RENEWAL_BATCH_SIZE) {
+                renewKeys(dueByTtl.remove(lease.ttl), lease.ttl);
+            }
+        }
+        dueByTtl.forEach((ttl, due) -> renewKeys(due, ttl));
     }
 
     /**
-     * Adds a key to the manager for TTL renewal.
+     * Renews the time-to-live (TTL) of the given keys.
+     *
+     * @param due The leases to renew by key
+     * @param ttl The TTL of the leases
+     */
+    private void renewKeys(Map<String, Lease> due, long ttl) {
+        logger.debug("Renewing TTL for keys: {}", due.keySet());
+        List<String> notOwned;
+        try {
+            notOwned = synchronizeSupport.renewIfOwned(due.keySet(), clientId, ttl);
+        } catch (RuntimeException e) {
+            // ownership is unknown, so the keys are kept and renewed again on their next turn
+            logger.error("Failed to set TTL for keys: {}", due.keySet(), e);
+            return;
+        }
+        Set<String> lostLocks = new LinkedHashSet<>();
+        int lostKeys = 0;
+        for (String key : notOwned) {
+            Lease lease = due.get(key);
+            // a key released, and possibly taken again, since it was due is not lost
+            if (lease != null && leases.remove(key, lease)) {
+                wheel[lease.bucket].remove(lease);
+                lostKeys++;
+                if (lease.lockKey != null) {
+                    lostLocks.add(lease.lockKey);
+                }
+            }
+        }
+        metrics.recordRenewal(due.size(), lostKeys);
+        for (String lockKey : lostLocks) {
+            logger.warn("{}:{} lost the lock", lockKey, clientId);
+            for (LockLostListener listener : listeners) {
+                try {
+                    listener.onLockLost(lockKey);
+                } catch (RuntimeException e) {
+                    logger.error("Error notifying {} of lost lock {}", listener, lockKey, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a key to the manager for TTL renewal, without reporting it when it is no longer owned.
      *
      * @param key The key to be added
      */
     public void addKey(String key) {
-        keys.add(Objects.requireNonNull(key));
+        add(new Lease(Objects.requireNonNull(key), null, timeToLive));
+    }
+
+    /**
+     * Adds a lease key of a lock to the manager for TTL renewal.
+     * The lock is reported to the listeners if the key is found to be no longer owned.
+     *
+     * @param key     The key to be added
+     * @param lockKey The key of the lock the lease key belongs to
+     */
+    public void addKey(String key, String lockKey) {
+        addKey(key, lockKey, timeToLive);
+    }
+
+    /**
+     * Adds a lease key of a lock taken with the given TTL to the manager for TTL renewal.
+     * The lock is reported to the listeners if the key is found to be no longer owned.
+     *
+     * @param key     The key to be added
+     * @param lockKey The key of the lock the lease key belongs to
+     * @param ttl     The TTL in milliseconds the key was set with, and is renewed with
+     */
+    public void addKey(String key, String lockKey, long ttl) {
+        add(new Lease(Objects.requireNonNull(key), Objects.requireNonNull(lockKey), ttl));
+    }
+
+    private void add(Lease lease) {
+        // registered before it is placed, since a tick drops placed leases that are not registered
+        Lease replaced = leases.put(lease.key, lease);
+        if (replaced != null && replaced.bucket >= 0) {
+            wheel[replaced.bucket].remove(replaced);
+        }
+        // the bucket the wheel passed last, which it passes again a revolution after it did
+        schedule(lease, (cursor + WHEEL_SIZE - 1) % WHEEL_SIZE);
+    }
+
+    /**
+     * Places a lease into the bucket passed its renewal interval after the given bucket was passed.
+     */
+    private void schedule(Lease lease, int passedBucket) {
+        long ticks = Math.max(1, renewalDelayOf(lease.ttl) / tickMillis);
+        int bucket = (int) ((passedBucket + ticks) % WHEEL_SIZE);
+        lease.rounds = (int) ((ticks - 1) / WHEEL_SIZE);
+        // read after the cursor the passed bucket was derived from, so that it covers the tick that advanced it
+        lease.scheduledTick = tickCount;
+        lease.passedBucket = passedBucket;
+        if (bucket != lease.bucket) {
+            wheel[bucket].add(lease);
+            if (lease.bucket >= 0) {
+                wheel[lease.bucket].remove(lease);
+            }
+            lease.bucket = bucket;
+        }
     }
 
     /**
@@ -60,7 +285,28 @@ public class LockKeyManager implements AutoCloseable {
      * @param key The key to be removed
      */
     public void removeKey(String key) {
-        keys.remove(key);
+        Lease lease = leases.remove(key);
+        if (lease != null && lease.bucket >= 0) {
+            wheel[lease.bucket].remove(lease);
+        }
+    }
+
+    /**
+     * Adds a listener notified when a lock is found to be lost.
+     *
+     * @param listener The listener
+     */
+    public void addListener(LockLostListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Removes a listener added by {@link #addListener(LockLostListener)}.
+     *
+     * @param listener The listener
+     */
+    public void removeListener(LockLostListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -70,4 +316,25 @@ public class LockKeyManager implements AutoCloseable {
     public void close() {
         renewalTask.cancel(false);
     }
+
+    /**
+     * A registration of a key; each registration is distinct, so that a key added again is told apart.
+     */
+    private static final class Lease {
+        private final String key;
+        private final String lockKey;
+        private final long ttl;
+        // the bucket of the wheel renewing the key, and the revolutions to skip before it is due
+        private volatile int bucket = -1;
+        private volatile int rounds;
+        // the tick running, or last run, when the lease was placed, and the bucket its delay counts from
+        private volatile long scheduledTick;
+        private volatile int passedBucket;
+
+        private Lease(String key, String lockKey, long ttl) {
+            this.key = key;
+            this.lockKey = lockKey;
+            this.ttl = ttl;
+        }
+    }
 }
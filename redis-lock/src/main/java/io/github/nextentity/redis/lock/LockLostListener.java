@@ -0,0 +1,20 @@
+package io.github.nextentity.redis.lock;
+
+/**
+ * Listener notified when a lock held by this client turns out to be lost in Redis,
+ * for example because its key expired or was deleted while renewal could not reach Redis.
+ * <p>
+ * Holders can use it to abort work guarded by the lock instead of running on without it.
+ *
+ * @see LockFactory#addLockLostListener(LockLostListener)
+ */
+@FunctionalInterface
+public interface LockLostListener {
+
+    /**
+     * Called on the renewal thread when a lock is found to be no longer owned. It should return quickly.
+     *
+     * @param key The key of the lock. A multi-key lock reports each of its lost keys
+     */
+    void onLockLost(String key);
+}
@@ -0,0 +1,71 @@
+package io.github.nextentity.redis.lock;
+
+/**
+ * Receives measurements of lock acquisition, renewal and Redis traffic, set through {@link Option#setMetrics(LockMetrics)}.
+ * <p>
+ * Methods are called on the hot path of the locks, from arbitrary threads, and must be cheap and thread-safe.
+ * They are not told the lock key, so that implementations do not create a meter per key.
+ * All methods default to doing nothing, and {@link #NOOP} records nothing at all.
+ *
+ * @see MicrometerLockMetrics
+ */
+public interface LockMetrics {
+
+    /**
+     * Metrics that record nothing, the default.
+     */
+    LockMetrics NOOP = new LockMetrics() {
+    };
+
+    /**
+     * Called when an acquisition of a distributed lock ends, whether it succeeded or gave up.
+     *
+     * @param acquired {@code true} if the lock was acquired
+     * @param nanos    Time in nanoseconds from the first attempt until the acquisition ended
+     * @param attempts Number of attempts made in Redis, so {@code attempts - 1} retries
+     */
+    default void recordAcquire(boolean acquired, long nanos, int attempts) {
+    }
+
+    /**
+     * Called after a thread parked waiting for the release of a lock.
+     *
+     * @param nanos Time in nanoseconds the thread was parked
+     */
+    default void recordWait(long nanos) {
+    }
+
+    /**
+     * Called after a renewal of the keys held by a client.
+     *
+     * @param keys Number of keys in the renewal batch
+     * @param lost Number of them found to be no longer owned
+     */
+    default void recordRenewal(int keys, int lost) {
+    }
+
+    /**
+     * Called for each release message received from Redis pub/sub.
+     */
+    default void recordMessage() {
+    }
+
+    /**
+     * Called when a received release is queued for dispatch to the waiters of its key.
+     *
+     * @param depth Number of keys queued afterward
+     * @see Option#getDispatchStripes()
+     */
+    default void recordDispatchQueue(int depth) {
+    }
+
+    /**
+     * Called after a round trip to Redis.
+     *
+     * @param command Name of the command or script
+     * @param nanos   Time in nanoseconds until the reply arrived
+     * @param failed  {@code true} if the command failed
+     */
+    default void recordCommand(String command, long nanos, boolean failed) {
+    }
+}
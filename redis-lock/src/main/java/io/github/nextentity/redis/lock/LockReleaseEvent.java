@@ -0,0 +1,49 @@
+package io.github.nextentity.redis.lock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event of the release of a distributed lock in Redis.
+ */
+@Name("io.github.nextentity.redis.lock.LockRelease")
+@Label("Lock Release")
+@Category("Redis Lock")
+@Description("Release of a distributed lock")
+@StackTrace(false)
+@Threshold("10 ms")
+final class LockReleaseEvent extends jdk.jfr.Event {
+
+    /**
+     * Released by the unlocking thread
+     */
+    static final String SYNC = "sync";
+    /**
+     * Released in the background, after the lock was handed over locally, cached or wanted by another node
+     */
+    static final String ASYNC = "async";
+
+    @Label("Key")
+    @Description("The lock key, or the keys of a multi-key lock joined by commas")
+    String key;
+
+    @Label("Path")
+    @Description("Whether the lock was released by the unlocking thread or in the background")
+    String path;
+
+    /**
+     * Ends the event and commits it if it is enabled and exceeds its threshold.
+     */
+    void complete(String key, String path) {
+        end();
+        if (shouldCommit()) {
+            this.key = key;
+            this.path = path;
+            commit();
+        }
+    }
+}
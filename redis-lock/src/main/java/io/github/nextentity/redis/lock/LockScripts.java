@@ -0,0 +1,443 @@
+package io.github.nextentity.redis.lock;
+
+/**
+ * Registry of the Lua scripts used by {@link SynchronizeSupport} implementations.
+ */
+public final class LockScripts {
+
+    /**
+     * Deletes {@code KEYS[1]} if its value equals {@code ARGV[1]}.
+     * Returns 1 if the key was deleted, otherwise 0.
+     */
+    public static final LuaScript DELETE_IF_VALUE_EQUALS = LuaScript.of("delete-if-value-equals", """
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+             return redis.call('del', KEYS[1])
+            else
+             return 0
+            end""");
+
+    /**
+     * Deletes each lock key whose value equals its expected value, and publishes it if a channel is given.
+     * <p>
+     * KEYS: lock keys.
+     * ARGV: the expected value of each key, followed by the release channel of each key if releases are published.
+     * Returns for each key 1 if it was deleted, otherwise 0.
+     */
+    public static final LuaScript RELEASE_ALL_IF_VALUE_EQUALS = LuaScript.of("release-all-if-value-equals", """
+            local n = #KEYS
+            local released = {}
+            for i = 1, n do
+             if redis.call('get', KEYS[i]) == ARGV[i] then
+              redis.call('del', KEYS[i])
+              if ARGV[n + i] then
+               redis.call('publish', ARGV[n + i], KEYS[i])
+              end
+              released[i] = 1
+             else
+              released[i] = 0
+             end
+            end
+            return released""");
+
+    /**
+     * Sets {@code KEYS[1]} to {@code ARGV[1]} with a TTL of {@code ARGV[2]} milliseconds if it does not exist.
+     * Returns nil if the key was set, otherwise the remaining TTL of the existing key.
+     */
+    public static final LuaScript SET_IF_ABSENT_OR_GET_REMAINING_TTL = LuaScript.of("set-if-absent-or-get-remaining-ttl", """
+            if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+             return nil
+            else
+             return redis.call('pttl', KEYS[1])
+            end""");
+
+    /**
+     * Takes a fair lock or joins its waiter queue.
+     * <p>
+     * KEYS: lock key, waiter queue, waiter timeouts.
+     * ARGV: client ID, lock TTL, waiter lease in milliseconds (0 to not join the queue).
+     * Expired waiters at the head of the queue are dropped first. The lock is taken if it was handed
+     * off to the client, or if it is free and the client is at the head of the queue (or the queue is empty).
+     * Returns nil if the lock is owned by the client, otherwise the time in milliseconds worth waiting.
+     */
+    public static final LuaScript ACQUIRE_FAIR_LOCK = LuaScript.of("acquire-fair-lock", """
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            while true do
+             local head = redis.call('lindex', KEYS[2], 0)
+             if not head then break end
+             local expiry = tonumber(redis.call('zscore', KEYS[3], head))
+             if expiry and expiry > now then break end
+             redis.call('lpop', KEYS[2])
+             redis.call('zrem', KEYS[3], head)
+            end
+            local owner = redis.call('get', KEYS[1])
+            if owner == ARGV[1] then
+             redis.call('pexpire', KEYS[1], ARGV[2])
+             redis.call('lrem', KEYS[2], 0, ARGV[1])
+             redis.call('zrem', KEYS[3], ARGV[1])
+             return nil
+            end
+            local head = redis.call('lindex', KEYS[2], 0)
+            if not owner and (not head or head == ARGV[1]) then
+             if head then
+              redis.call('lpop', KEYS[2])
+              redis.call('zrem', KEYS[3], ARGV[1])
+             end
+             redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2])
+             return nil
+            end
+            local lease = tonumber(ARGV[3])
+            if lease > 0 then
+             if not redis.call('zscore', KEYS[3], ARGV[1]) then
+              redis.call('rpush', KEYS[2], ARGV[1])
+             end
+             redis.call('zadd', KEYS[3], now + lease, ARGV[1])
+             redis.call('pexpire', KEYS[2], lease)
+             redis.call('pexpire', KEYS[3], lease)
+            end
+            if owner then
+             return redis.call('pttl', KEYS[1])
+            end
+            return tonumber(redis.call('zscore', KEYS[3], head)) - now""");
+
+    /**
+     * Releases a fair lock, handing it straight to the first live waiter.
+     * <p>
+     * KEYS: lock key, waiter queue, waiter timeouts.
+     * ARGV: client ID, lease in milliseconds for the new owner to claim the lock, direct channel prefix.
+     * The new owner is woken by a message carrying the lock key on its direct channel.
+     * Returns 1 if the lock was owned by the client, otherwise 0.
+     */
+    public static final LuaScript RELEASE_FAIR_LOCK = LuaScript.of("release-fair-lock", """
+            if redis.call('get', KEYS[1]) ~= ARGV[1] then
+             return 0
+            end
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            while true do
+             local head = redis.call('lpop', KEYS[2])
+             if not head then
+              redis.call('del', KEYS[1])
+              return 1
+             end
+             local expiry = tonumber(redis.call('zscore', KEYS[3], head))
+             redis.call('zrem', KEYS[3], head)
+             if expiry and expiry > now then
+              redis.call('set', KEYS[1], head, 'PX', ARGV[2])
+              redis.call('publish', ARGV[3] .. head, KEYS[1])
+              return 1
+             end
+            end""");
+
+    /**
+     * Leaves the waiter queue of a fair lock.
+     * <p>
+     * KEYS: lock key, waiter queue, waiter timeouts.
+     * ARGV: client ID, lock TTL.
+     * Returns 1 if the lock was handed off to the client in the meantime, in which case it is kept, otherwise 0.
+     */
+    public static final LuaScript CANCEL_FAIR_LOCK_WAIT = LuaScript.of("cancel-fair-lock-wait", """
+            redis.call('lrem', KEYS[2], 0, ARGV[1])
+            redis.call('zrem', KEYS[3], ARGV[1])
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+             redis.call('pexpire', KEYS[1], ARGV[2])
+             return 1
+            end
+            return 0""");
+
+    /**
+     * Takes a read share of a read-write lock.
+     * <p>
+     * KEYS: write lock key, readers (sorted by lease expiry), write intent.
+     * ARGV: client ID, TTL in milliseconds.
+     * The share is refused while another client holds the write lock or waits for it.
+     * Returns nil if the share was taken, otherwise the remaining TTL of what blocks it.
+     */
+    public static final LuaScript ACQUIRE_READ_LOCK = LuaScript.of("acquire-read-lock", """
+            local owner = redis.call('get', KEYS[1])
+            if owner and owner ~= ARGV[1] then
+             return redis.call('pttl', KEYS[1])
+            end
+            local intent = redis.call('get', KEYS[3])
+            if intent and intent ~= ARGV[1] then
+             return redis.call('pttl', KEYS[3])
+            end
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('zadd', KEYS[2], now + tonumber(ARGV[2]), ARGV[1])
+            redis.call('pexpire', KEYS[2], ARGV[2])
+            return nil""");
+
+    /**
+     * Releases a read share of a read-write lock, publishing the lock key once no readers are left.
+     * <p>
+     * KEYS: readers (sorted by lease expiry).
+     * ARGV: client ID, release channel, lock key.
+     * Readers whose lease expired are dropped too.
+     * Returns 1 if the share was still held by the client, otherwise 0.
+     */
+    public static final LuaScript RELEASE_READ_LOCK = LuaScript.of("release-read-lock", """
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local expiry = tonumber(redis.call('zscore', KEYS[1], ARGV[1]))
+            redis.call('zrem', KEYS[1], ARGV[1])
+            redis.call('zremrangebyscore', KEYS[1], '-inf', now)
+            if redis.call('zcard', KEYS[1]) == 0 then
+             redis.call('publish', ARGV[2], ARGV[3])
+            end
+            if expiry and expiry > now then
+             return 1
+            end
+            return 0""");
+
+    /**
+     * Takes the write lock of a read-write lock once no other client holds a read share.
+     * <p>
+     * KEYS: write lock key, readers (sorted by lease expiry), write intent.
+     * ARGV: client ID, TTL in milliseconds, write intent lease in milliseconds (0 to not register one).
+     * Readers whose lease expired are dropped. While blocked, the client registers a write intent
+     * so that no new readers are admitted.
+     * Returns nil if the lock was taken, otherwise the time in milliseconds worth waiting.
+     */
+    public static final LuaScript ACQUIRE_WRITE_LOCK = LuaScript.of("acquire-write-lock", """
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('zremrangebyscore', KEYS[2], '-inf', now)
+            local blocked = false
+            local wait = 0
+            local readers = redis.call('zrange', KEYS[2], 0, -1, 'WITHSCORES')
+            for i = 1, #readers, 2 do
+             if readers[i] ~= ARGV[1] then
+              blocked = true
+              wait = math.max(wait, tonumber(readers[i + 1]) - now)
+             end
+            end
+            if not blocked then
+             if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+              if redis.call('get', KEYS[3]) == ARGV[1] then
+               redis.call('del', KEYS[3])
+              end
+              return nil
+             end
+             wait = redis.call('pttl', KEYS[1])
+            end
+            local lease = tonumber(ARGV[3])
+            if lease > 0 then
+             local intent = redis.call('get', KEYS[3])
+             if not intent or intent == ARGV[1] then
+              redis.call('set', KEYS[3], ARGV[1], 'PX', lease)
+             end
+            end
+            return wait""");
+
+    /**
+     * Withdraws a write intent and publishes the lock key so that held back readers retry.
+     * <p>
+     * KEYS: write intent.
+     * ARGV: client ID, release channel, lock key.
+     * Returns 1 if the intent belonged to the client, otherwise 0.
+     */
+    public static final LuaScript CANCEL_WRITE_INTENT = LuaScript.of("cancel-write-intent", """
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+             redis.call('del', KEYS[1])
+             redis.call('publish', ARGV[2], ARGV[3])
+             return 1
+            end
+            return 0""");
+
+    /**
+     * Takes permits of a semaphore for as many queued requests as fit, in order.
+     * <p>
+     * KEYS: permits hash (client ID to permits held), permit timeouts (client ID to lease expiry).
+     * ARGV: client ID, total permits, TTL in milliseconds, requested permits...
+     * Holders whose lease expired are dropped. Requests are granted in order until one does not fit.
+     * Returns the number of permits taken.
+     */
+    public static final LuaScript ACQUIRE_PERMITS = LuaScript.of("acquire-permits", """
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local used = 0
+            local holders = redis.call('hgetall', KEYS[1])
+            for i = 1, #holders, 2 do
+             local holder = holders[i]
+             local expiry = tonumber(redis.call('zscore', KEYS[2], holder))
+             if holder ~= ARGV[1] and not (expiry and expiry > now) then
+              redis.call('hdel', KEYS[1], holder)
+              redis.call('zrem', KEYS[2], holder)
+             else
+              used = used + tonumber(holders[i + 1])
+             end
+            end
+            local free = tonumber(ARGV[2]) - used
+            local granted = 0
+            for i = 4, #ARGV do
+             local requested = tonumber(ARGV[i])
+             if granted + requested > free then
+              break
+             end
+             granted = granted + requested
+            end
+            if granted > 0 then
+             redis.call('hincrby', KEYS[1], ARGV[1], granted)
+             redis.call('zadd', KEYS[2], now + tonumber(ARGV[3]), ARGV[1])
+             redis.call('pexpire', KEYS[1], ARGV[3])
+             redis.call('pexpire', KEYS[2], ARGV[3])
+            end
+            return granted""");
+
+    /**
+     * Returns permits of a semaphore and publishes its key.
+     * <p>
+     * KEYS: permits hash, permit timeouts.
+     * ARGV: client ID, permits to return, release channel, semaphore key.
+     * Returns 1 if the client still held that many permits, otherwise 0.
+     */
+    public static final LuaScript RELEASE_PERMITS = LuaScript.of("release-permits", """
+            local left = redis.call('hincrby', KEYS[1], ARGV[1], -tonumber(ARGV[2]))
+            if left <= 0 then
+             redis.call('hdel', KEYS[1], ARGV[1])
+             redis.call('zrem', KEYS[2], ARGV[1])
+            end
+            redis.call('publish', ARGV[3], ARGV[4])
+            if left < 0 then
+             return 0
+            end
+            return 1""");
+
+    /**
+     * Appends a waiter to the queue of a condition.
+     * <p>
+     * KEYS: condition queue, waiter key.
+     * ARGV: client ID of the waiter, TTL in milliseconds of the waiter key.
+     * The waiter key holds the client ID and exists for as long as it waits.
+     */
+    public static final LuaScript ADD_CONDITION_WAITER = LuaScript.of("add-condition-waiter", """
+            redis.call('rpush', KEYS[1], KEYS[2])
+            redis.call('set', KEYS[2], ARGV[1], 'PX', ARGV[2])
+            return nil""");
+
+    /**
+     * Signals the waiters of a condition in queue order, skipping waiters whose key expired.
+     * <p>
+     * KEYS: condition queue.
+     * ARGV: maximum number of waiters to signal, or 0 to signal all, direct channel prefix.
+     * Each signalled waiter key is deleted and published on the direct channel of the client it holds.
+     * Returns the number of waiters signalled.
+     */
+    public static final LuaScript SIGNAL_CONDITION = LuaScript.of("signal-condition", """
+            local limit = tonumber(ARGV[1])
+            local signalled = 0
+            while limit == 0 or signalled < limit do
+             local waiter = redis.call('lpop', KEYS[1])
+             if not waiter then
+              break
+             end
+             local client = redis.call('get', waiter)
+             if client then
+              redis.call('del', waiter)
+              redis.call('publish', ARGV[2] .. client, waiter)
+              signalled = signalled + 1
+             end
+            end
+            return signalled""");
+
+    /**
+     * Removes a waiter from the queue of a condition.
+     * <p>
+     * KEYS: condition queue, waiter key.
+     * Returns 1 if the waiter was still queued, or 0 if it had been signalled.
+     */
+    public static final LuaScript REMOVE_CONDITION_WAITER = LuaScript.of("remove-condition-waiter", """
+            local removed = redis.call('lrem', KEYS[1], 1, KEYS[2])
+            redis.call('del', KEYS[2])
+            return removed""");
+
+    /**
+     * Sets all lock keys if none of them exists, otherwise gets the longest remaining TTL among them.
+     * <p>
+     * KEYS: lock keys.
+     * ARGV: client ID, TTL in milliseconds.
+     * Returns nil if all keys were set.
+     */
+    public static final LuaScript SET_ALL_IF_ABSENT_OR_GET_REMAINING_TTL = LuaScript.of("set-all-if-absent-or-get-remaining-ttl", """
+            local blocked = false
+            local wait = 0
+            for i = 1, #KEYS do
+             local ttl = redis.call('pttl', KEYS[i])
+             if ttl ~= -2 then
+              blocked = true
+              wait = math.max(wait, ttl)
+             end
+            end
+            if blocked then
+             return wait
+            end
+            for i = 1, #KEYS do
+             redis.call('set', KEYS[i], ARGV[1], 'PX', ARGV[2])
+            end
+            return nil""");
+
+    /**
+     * Deletes the lock keys whose value equals the client ID and publishes each of them.
+     * <p>
+     * KEYS: lock keys.
+     * ARGV: client ID, followed by the release channel of each key.
+     * Returns 1 if all keys were held by the client, otherwise 0.
+     */
+    public static final LuaScript DELETE_ALL_IF_VALUE_EQUALS = LuaScript.of("delete-all-if-value-equals", """
+            local released = 0
+            for i = 1, #KEYS do
+             if redis.call('get', KEYS[i]) == ARGV[1] then
+              redis.call('del', KEYS[i])
+              redis.call('publish', ARGV[i + 1], KEYS[i])
+              released = released + 1
+             end
+            end
+            if released == #KEYS then
+             return 1
+            end
+            return 0""");
+
+    /**
+     * Renews the keys still owned by a client and reports the others.
+     * <p>
+     * KEYS: keys to renew.
+     * ARGV: client ID, TTL in milliseconds.
+     * A string key is owned if its value is the client ID, a set if the client ID is a member,
+     * a hash if the client ID is a field, and a sorted set if the client ID is a member whose score,
+     * the expiry of its lease, has not passed. That score is extended by the TTL as well.
+     * Returns the keys that were not owned, and therefore not renewed.
+     */
+    public static final LuaScript RENEW_IF_OWNED = LuaScript.of("renew-if-owned", """
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local lost = {}
+            for i = 1, #KEYS do
+             local type = redis.call('type', KEYS[i]).ok
+             local owned
+             if type == 'string' then
+              owned = redis.call('get', KEYS[i]) == ARGV[1]
+             elseif type == 'set' then
+              owned = redis.call('sismember', KEYS[i], ARGV[1]) == 1
+             elseif type == 'hash' then
+              owned = redis.call('hexists', KEYS[i], ARGV[1]) == 1
+             elseif type == 'zset' then
+              local expiry = tonumber(redis.call('zscore', KEYS[i], ARGV[1]))
+              owned = expiry ~= nil and expiry > now
+              if owned then
+               redis.call('zadd', KEYS[i], now + tonumber(ARGV[2]), ARGV[1])
+              end
+             else
+              owned = false
+             end
+             if owned then
+              redis.call('pexpire', KEYS[i], ARGV[2])
+             else
+              lost[#lost + 1] = KEYS[i]
+             end
+            end
+            return lost""");
+
+    private LockScripts() {
+    }
+}
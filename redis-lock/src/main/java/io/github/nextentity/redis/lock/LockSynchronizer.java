@@ -4,6 +4,7 @@ import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
@@ -15,15 +16,24 @@ public class LockSynchronizer {
     private static final Logger logger = LoggerFactory.getLogger(LockSynchronizer.class);
     private static final long NOT_LOCKED_MARK = Long.MIN_VALUE;
 
-    private final SynchronizeSupport support;
+    protected final SynchronizeSupport support;
     @Getter
-    private final String key;
-    private final String clientId;
-    private final long timeToLiveMillis;
+    protected final String key;
+    protected final String clientId;
+    protected final long timeToLiveMillis;
     private final long maxWaitTimeMillis;
     private final LockKeyManager lockKeyManager;
+    private final List<String> leaseKeys;
+    // the holder of the lock may keep it cached until asked for it
+    private final boolean leaseCaching;
+    private final LockMetrics metrics;
+    private final WaitStrategy waitStrategy;
 
     private final AtomicLong lockedTime = new AtomicLong(NOT_LOCKED_MARK);
+    // the TTL the lock was last acquired with
+    private volatile long leaseTimeToLive;
+    // set while the lock is held if Flight Recorder records it
+    private volatile LockHeldEvent heldEvent;
 
     /**
      * Constructs a LockSynchronizer with the specified parameters.
@@ -34,12 +44,33 @@ public class LockSynchronizer {
      * @param option         Configuration options
      */
     public LockSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, String key, Option option) {
+        this(support, lockKeyManager, key, option, option.getWaitLimit(), List.of(key));
+    }
+
+    /**
+     * Constructs a LockSynchronizer with an explicit upper bound for a single wait
+     * and the Redis keys to renew while the lock is held.
+     *
+     * @param support           SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager    LockKeyManager for managing lock keys
+     * @param key               The lock key
+     * @param option            Configuration options
+     * @param maxWaitTimeMillis Maximum time to park before retrying
+     * @param leaseKeys         Keys whose TTL is renewed while the lock is held
+     */
+    protected LockSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, String key, Option option,
+                               long maxWaitTimeMillis, List<String> leaseKeys) {
         this.support = support;
         this.key = key;
         this.clientId = option.getClientId();
         this.timeToLiveMillis = option.getKeyTimeToLive();
-        this.maxWaitTimeMillis = option.getWaitLimit();
+        this.maxWaitTimeMillis = maxWaitTimeMillis;
         this.lockKeyManager = lockKeyManager;
+        this.leaseKeys = leaseKeys;
+        this.leaseCaching = option.getLeaseCacheIdleTimeout() > 0;
+        this.metrics = option.getMetrics();
+        this.waitStrategy = option.waitStrategyOf(key);
+        this.leaseTimeToLive = timeToLiveMillis;
     }
 
     /**
@@ -59,7 +90,15 @@ public class LockSynchronizer {
      * @return true if the lock was acquired, false otherwise
      */
     public boolean tryAcquireLock() {
-        return tryAcquireLockUntil(0);
+        LockAcquireEvent event = new LockAcquireEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean acquired = acquireOrGetRemainingTTL(false) == null;
+        recordAcquire(event, start, acquired, 1);
+        if (acquired) {
+            markAsLocked();
+        }
+        return acquired;
     }
 
     /**
@@ -70,21 +109,32 @@ public class LockSynchronizer {
      */
     public boolean tryAcquireLockUntil(long deadline) {
         Thread currentThread = Thread.currentThread();
-        SynchronizeSupport.Cancelable subscription = support.subscribeToKey(key, () -> {
+        SynchronizeSupport.Cancelable subscription = subscribeToRelease(() -> {
             logger.debug("Waiting for release {}[{}] successful", key, currentThread.getName());
             LockSupport.unpark(currentThread);
         });
 
+        LockAcquireEvent event = new LockAcquireEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int attempts = 0;
         long waitTime = 0;
         try {
             do {
-                awaitReleaseSignal(waitTime);
-                Long remainingTTL = support.setIfAbsentOrGetRemainingTTL(key, clientId, timeToLiveMillis);
+                awaitReleaseSignal(attempts, waitTime);
+                Long remainingTTL = acquireOrGetRemainingTTL(true);
+                attempts++;
                 if (remainingTTL == null) {
+                    recordAcquire(event, start, true, attempts);
                     markAsLocked();
                     return true;
                 } else if (System.currentTimeMillis() >= deadline) {
-                    return false;
+                    boolean acquired = abandonAcquire();
+                    recordAcquire(event, start, acquired, attempts);
+                    if (acquired) {
+                        markAsLocked();
+                    }
+                    return acquired;
                 }
                 waitTime = calculateWaitTime(deadline, System.currentTimeMillis() + remainingTTL);
             } while (true);
@@ -93,6 +143,96 @@ public class LockSynchronizer {
         }
     }
 
+    /**
+     * Makes a single attempt to acquire the lock for a caller that waits for the release signal itself,
+     * see {@link #subscribeToRelease(Runnable)}. A caller that gives up must call {@link #abandonAttempt()}.
+     *
+     * @return {@code null} if the lock was acquired, otherwise the time in milliseconds worth waiting before retrying
+     */
+    public Long attemptAcquireLock() {
+        Long remainingTTL = acquireOrGetRemainingTTL(true);
+        if (remainingTTL == null) {
+            markAsLocked();
+            return null;
+        }
+        return remainingTTL > 0 ? Math.min(remainingTTL, maxWaitTimeMillis) : maxWaitTimeMillis;
+    }
+
+    /**
+     * Gives up waiting after {@link #attemptAcquireLock()} failed.
+     *
+     * @return {@code true} if the lock turned out to be acquired meanwhile and is kept
+     */
+    public boolean abandonAttempt() {
+        if (abandonAcquire()) {
+            markAsLocked();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Subscribes to the release notifications of the lock.
+     *
+     * @param callback Callback to be executed when the lock may have been released
+     * @return A cancelable API to cancel the subscription
+     */
+    public SynchronizeSupport.Cancelable subscribeToRelease(Runnable callback) {
+        return support.subscribeToKey(key, callback);
+    }
+
+    /**
+     * Subscribes to the "wanted" signals other clients publish when they fail to acquire the lock,
+     * see {@link Option#getLeaseCacheIdleTimeout()}.
+     *
+     * @param callback Callback to be executed when another client asks for the lock
+     * @return A cancelable API to cancel the subscription
+     */
+    public SynchronizeSupport.Cancelable subscribeToWanted(Runnable callback) {
+        return support.subscribeToKey(KeyNames.wanted(key), callback);
+    }
+
+    /**
+     * Makes a single attempt to take the lock in Redis.
+     * If the attempt of a waiting caller fails with lease caching enabled, the holder is asked for the lock.
+     *
+     * @param waiting {@code true} if the caller will wait for the lock when the attempt fails
+     * @return {@code null} if the lock was taken, otherwise the time in milliseconds worth waiting before retrying
+     */
+    protected Long acquireOrGetRemainingTTL(boolean waiting) {
+        long ttl = lockKeyManager.timeToLiveOf(key);
+        Long remainingTTL = support.setIfAbsentOrGetRemainingTTL(key, clientId, ttl);
+        if (remainingTTL == null) {
+            leaseTimeToLive = ttl;
+        } else if (waiting && leaseCaching) {
+            support.publishKey(KeyNames.wanted(key));
+        }
+        return remainingTTL;
+    }
+
+    /**
+     * Called when a waiting acquisition gives up at its deadline.
+     *
+     * @return {@code true} if the lock turned out to be owned by this client and is kept
+     */
+    protected boolean abandonAcquire() {
+        return false;
+    }
+
+    /**
+     * Releases the lock in Redis.
+     *
+     * @return {@code true} if the lock was still owned by this client
+     */
+    protected boolean release() {
+        return support.releaseIfValueEquals(key, clientId);
+    }
+
+    private void recordAcquire(LockAcquireEvent event, long start, boolean acquired, int attempts) {
+        metrics.recordAcquire(acquired, System.nanoTime() - start, attempts);
+        event.complete(key, acquired, attempts);
+    }
+
     private long calculateWaitTime(long deadline, long expirationTime) {
         long remainingDeadline = deadline - System.currentTimeMillis();
         long remainingTTL = expirationTime - System.currentTimeMillis();
@@ -100,33 +240,50 @@ public class LockSynchronizer {
         return Math.min(waitTime, maxWaitTimeMillis);
     }
 
-    private void awaitReleaseSignal(long waitTime) {
+    private void awaitReleaseSignal(int retries, long waitTime) {
         if (waitTime <= 0) {
             return;
         }
         logger.debug("Expected wait time: {} ms", waitTime);
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         try {
-            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(waitTime));
+            waitStrategy.await(retries, TimeUnit.MILLISECONDS.toNanos(waitTime));
         } catch (Exception e) {
             logger.warn("Error while waiting for release of {}: ", key, e);
         }
-        long actualWaitTime = System.currentTimeMillis() - startTime;
-        logger.debug("Actual wait time: {} ms", actualWaitTime);
+        long actualWaitTime = System.nanoTime() - startTime;
+        metrics.recordWait(actualWaitTime);
+        logger.debug("Actual wait time: {} ms", TimeUnit.NANOSECONDS.toMillis(actualWaitTime));
+    }
+
+    /**
+     * Records for how long the lock was held by a local holder, see {@link Option#isAdaptiveLease()}.
+     * A lock kept in Redis after its last local unlock records the local holds only, not the time it was kept.
+     *
+     * @param holdTime The hold time in milliseconds
+     */
+    public void recordHoldTime(long holdTime) {
+        lockKeyManager.recordHoldTime(key, holdTime);
     }
 
     /**
      * Releases the lock.
      */
     public void releaseLock() {
-        if (lockedTime.getAndSet(NOT_LOCKED_MARK) == NOT_LOCKED_MARK) {
+        long lockedAt = lockedTime.getAndSet(NOT_LOCKED_MARK);
+        if (lockedAt == NOT_LOCKED_MARK) {
             throw new IllegalStateException(key + ":" + clientId + " is not locked");
         }
         logger.debug("Unlocked {}", this);
-        lockKeyManager.removeKey(key);
-        if (support.deleteIfValueEquals(key, clientId)) {
-            support.publishKey(key);
-        } else {
+        LockHeldEvent event = heldEvent;
+        if (event != null) {
+            heldEvent = null;
+            event.complete(key);
+        }
+        for (String leaseKey : leaseKeys) {
+            lockKeyManager.removeKey(leaseKey);
+        }
+        if (!release()) {
             logger.warn("{}:{} failed to delete key upon unlocking", key, clientId);
             throw new IllegalMonitorStateException(key + ":" + clientId + " is not locked");
         }
@@ -137,7 +294,39 @@ public class LockSynchronizer {
             throw new IllegalMonitorStateException(key + ":" + clientId + " is already locked");
         }
         logger.debug("Locked {}", this);
-        lockKeyManager.addKey(key);
+        LockHeldEvent event = new LockHeldEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            heldEvent = event;
+        }
+        for (String leaseKey : leaseKeys) {
+            lockKeyManager.addKey(leaseKey, lockKeyOf(leaseKey), leaseTimeToLive);
+        }
+    }
+
+    /**
+     * Returns the lock key reported to {@link LockLostListener}s when the given lease key is lost.
+     *
+     * @param leaseKey One of the keys renewed while the lock is held
+     * @return The lock key
+     */
+    protected String lockKeyOf(String leaseKey) {
+        return key;
+    }
+
+    /**
+     * Creates the synchronizer of a condition of this lock.
+     *
+     * @param name The condition name, which identifies the condition across clients
+     * @return The condition synchronizer
+     * @throws UnsupportedOperationException if the synchronize support does not implement conditions
+     */
+    public ConditionSynchronizer newConditionSynchronizer(String name) {
+        if (!support.isSupported(SynchronizeSupport.Feature.CONDITIONS)) {
+            throw SynchronizeSupport.Feature.CONDITIONS.unsupportedBy(support);
+        }
+        return new ConditionSynchronizer(support, lockKeyManager, KeyNames.condition(key, name), clientId,
+                timeToLiveMillis, maxWaitTimeMillis);
     }
 
     public boolean isLocked() {
@@ -0,0 +1,57 @@
+package io.github.nextentity.redis.lock;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * A Lua script identified by the SHA1 digest of its source.
+ * <p>
+ * Scripts are invoked with EVALSHA so that only the digest travels on the hot path.
+ * The source is sent with SCRIPT LOAD when Redis replies NOSCRIPT, for example
+ * the first time a script is used, after a failover or after SCRIPT FLUSH.
+ *
+ * @see LockScripts
+ */
+@Getter
+public final class LuaScript {
+
+    private final String name;
+    private final String source;
+    private final String sha1;
+
+    private LuaScript(String name, String source) {
+        this.name = Objects.requireNonNull(name);
+        this.source = Objects.requireNonNull(source);
+        this.sha1 = digest(source);
+    }
+
+    /**
+     * Creates a named script from its Lua source. The name identifies the script in logs and metrics.
+     *
+     * @param name   Script name
+     * @param source Lua source
+     * @return A new LuaScript
+     */
+    public static LuaScript of(String name, String source) {
+        return new LuaScript(name, source);
+    }
+
+    private static String digest(String source) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(md.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LuaScript[" + name + ", " + sha1 + "]";
+    }
+}
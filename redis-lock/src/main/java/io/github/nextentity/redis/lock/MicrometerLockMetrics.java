@@ -0,0 +1,123 @@
+package io.github.nextentity.redis.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LockMetrics} recording to a Micrometer {@link MeterRegistry}, from which they can be exported to
+ * Prometheus, Datadog, JMX and the other monitoring systems Micrometer supports.
+ * <p>
+ * Micrometer is an optional dependency and must be on the classpath to use this class. It registers:
+ * <ul>
+ *     <li>{@code redis.lock.acquire}: timer of acquisitions, tagged {@code outcome=acquired|timeout}</li>
+ *     <li>{@code redis.lock.acquire.attempts}: attempts made in Redis per acquisition</li>
+ *     <li>{@code redis.lock.wait}: timer of the time threads are parked waiting for a release</li>
+ *     <li>{@code redis.lock.renewal.keys}: keys per renewal batch</li>
+ *     <li>{@code redis.lock.renewal.lost}: counter of keys found to be no longer owned</li>
+ *     <li>{@code redis.lock.messages}: counter of release messages received</li>
+ *     <li>{@code redis.lock.dispatch.queue}: keys queued for dispatch when a release is queued</li>
+ *     <li>{@code redis.lock.command}: timer of Redis round trips, tagged with the {@code command}
+ *     and {@code outcome=success|error}</li>
+ * </ul>
+ */
+public class MicrometerLockMetrics implements LockMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer acquired;
+    private final Timer timedOut;
+    private final DistributionSummary attempts;
+    private final Timer wait;
+    private final DistributionSummary renewalKeys;
+    private final Counter lostKeys;
+    private final Counter messages;
+    private final DistributionSummary dispatchQueue;
+    private final Map<String, Timer> commands = new ConcurrentHashMap<>();
+    private final Map<String, Timer> failedCommands = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a MicrometerLockMetrics registering its meters to the given registry.
+     *
+     * @param registry The registry
+     */
+    public MicrometerLockMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.acquired = acquireTimer("acquired");
+        this.timedOut = acquireTimer("timeout");
+        this.attempts = DistributionSummary.builder("redis.lock.acquire.attempts")
+                .description("Attempts made in Redis per lock acquisition")
+                .register(registry);
+        this.wait = Timer.builder("redis.lock.wait")
+                .description("Time threads are parked waiting for the release of a lock")
+                .register(registry);
+        this.renewalKeys = DistributionSummary.builder("redis.lock.renewal.keys")
+                .description("Keys per renewal batch")
+                .register(registry);
+        this.lostKeys = Counter.builder("redis.lock.renewal.lost")
+                .description("Keys found to be no longer owned on renewal")
+                .register(registry);
+        this.messages = Counter.builder("redis.lock.messages")
+                .description("Release messages received")
+                .register(registry);
+        this.dispatchQueue = DistributionSummary.builder("redis.lock.dispatch.queue")
+                .description("Keys queued for dispatch when a release is queued")
+                .register(registry);
+    }
+
+    private Timer acquireTimer(String outcome) {
+        return Timer.builder("redis.lock.acquire")
+                .description("Time to acquire a lock")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Timer commandTimer(String command, String outcome) {
+        return Timer.builder("redis.lock.command")
+                .description("Round trip time of Redis commands")
+                .tag("command", command)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void recordAcquire(boolean acquired, long nanos, int attempts) {
+        (acquired ? this.acquired : timedOut).record(nanos, TimeUnit.NANOSECONDS);
+        this.attempts.record(attempts);
+    }
+
+    @Override
+    public void recordWait(long nanos) {
+        wait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRenewal(int keys, int lost) {
+        renewalKeys.record(keys);
+        if (lost > 0) {
+            lostKeys.increment(lost);
+        }
+    }
+
+    @Override
+    public void recordMessage() {
+        messages.increment();
+    }
+
+    @Override
+    public void recordDispatchQueue(int depth) {
+        dispatchQueue.record(depth);
+    }
+
+    @Override
+    public void recordCommand(String command, long nanos, boolean failed) {
+        Timer timer = failed
+                ? failedCommands.computeIfAbsent(command, c -> commandTimer(c, "error"))
+                : commands.computeIfAbsent(command, c -> commandTimer(c, "success"));
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
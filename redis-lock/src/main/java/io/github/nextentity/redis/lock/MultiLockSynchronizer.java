@@ -0,0 +1,61 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synchronizer for a lock over several keys, which are set or released together by a single script.
+ * <p>
+ * Waiters are woken by the release of any of the keys. Its {@link #getKey() key} is the keys joined by commas,
+ * which names the lock in logs and Flight Recorder events. Lost keys are reported by their own names.
+ */
+public class MultiLockSynchronizer extends LockSynchronizer {
+
+    private final List<String> keys;
+
+    /**
+     * Constructs a MultiLockSynchronizer with the specified parameters.
+     *
+     * @param support        SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager LockKeyManager for managing lock keys
+     * @param keys           The lock keys, in canonical order
+     * @param option         Configuration options
+     */
+    public MultiLockSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, List<String> keys,
+                                 Option option) {
+        super(support, lockKeyManager, String.join(",", keys), option, option.getWaitLimit(), keys);
+        this.keys = keys;
+    }
+
+    @Override
+    public SynchronizeSupport.Cancelable subscribeToRelease(Runnable callback) {
+        List<SynchronizeSupport.Cancelable> subscriptions = new ArrayList<>(keys.size());
+        try {
+            for (String key : keys) {
+                subscriptions.add(support.subscribeToKey(key, callback));
+            }
+        } catch (RuntimeException e) {
+            subscriptions.forEach(SynchronizeSupport.Cancelable::cancel);
+            throw e;
+        }
+        return () -> subscriptions.forEach(SynchronizeSupport.Cancelable::cancel);
+    }
+
+    /**
+     * Reports each lost key of the lock on its own, not the joined key name.
+     */
+    @Override
+    protected String lockKeyOf(String leaseKey) {
+        return leaseKey;
+    }
+
+    @Override
+    protected Long acquireOrGetRemainingTTL(boolean waiting) {
+        return support.setAllIfAbsentOrGetRemainingTTL(keys, clientId, timeToLiveMillis);
+    }
+
+    @Override
+    protected boolean release() {
+        return support.deleteAllIfValueEquals(keys, clientId);
+    }
+}
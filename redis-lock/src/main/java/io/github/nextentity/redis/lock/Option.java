@@ -1,6 +1,5 @@
 package io.github.nextentity.redis.lock;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,11 +8,11 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Option {
 
     /**
@@ -26,6 +25,11 @@ public class Option {
      */
     public static final String DEFAULT_CLIENT_ID = IdGenerator.generateUniqueId();
 
+    /**
+     * Default maximum number of keys released in Redis in a single round trip
+     */
+    public static final int DEFAULT_MAX_RELEASE_BATCH_SIZE = 128;
+
     /**
      * Default scheduler for renewing the time-to-live (TTL) for locked keys
      */
@@ -92,6 +96,171 @@ public class Option {
      */
     private long maxReleaseDelay = TimeUnit.SECONDS.toMillis(5);
 
+    /**
+     * Number of release channels lock keys are hashed onto.
+     * <p>
+     * With a single partition every release is published on {@code channelId} and received by every node.
+     * Otherwise releases are published on {@code channelId:<partition>}, and a node only subscribes to
+     * the partitions it has waiters on. All nodes sharing locks must use the same value.
+     */
+    private int channelPartitions = 1;
+
+    /**
+     * Time in milliseconds a partition channel stays subscribed after its last waiter leaves
+     */
+    private long channelIdleTimeout = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Glob-style pattern of the lock keys whose expiry or deletion wakes waiters through Redis keyspace notifications,
+     * or {@code null} to rely on published releases only.
+     * <p>
+     * Waiters then retry as soon as the lock of a crashed holder expires, rather than after up to {@code waitLimit}.
+     * Redis must be configured to emit the events, with {@code notify-keyspace-events} including
+     * {@code K}, {@code g} and {@code x}, for example {@code Kgx}.
+     * On Redis Cluster a node only notifies of its own keys, so this then only covers the keys of the node
+     * the subscriber is connected to.
+     */
+    private String keyspaceNotificationPattern;
+
+    /**
+     * Number of stripes dispatching received releases to waiters, or 0 to dispatch on the thread reading them.
+     * <p>
+     * Releases are handed over to the stripes on {@code commandAsyncExecutor}, so that slow callbacks or a burst of
+     * releases do not delay reading further messages until Redis drops the connection for exceeding its output buffer
+     * limit. The releases of a key are dispatched in order by one stripe, and repeated releases of a key still queued
+     * are coalesced.
+     */
+    private int dispatchStripes = 0;
+
+    /**
+     * Maximum number of keys queued for dispatch; beyond it releases are dispatched on the thread reading them
+     */
+    private int dispatchQueueCapacity = 10_000;
+
+    /**
+     * Whether the TTL of a plain lock is picked from how long it was held before, instead of {@code keyTimeToLive}.
+     * <p>
+     * A lock usually held briefly then gets a short TTL, so that its waiters take over soon if its holder crashes,
+     * and a lock usually held for long gets a long TTL, so that it is renewed rarely. The TTL is long enough for
+     * nearly all holds to end before the first renewal, within {@code minKeyTimeToLive} and {@code maxKeyTimeToLive},
+     * and keys are renewed after the same share of their TTL as {@code renewalInterval} is of {@code keyTimeToLive}.
+     * Locks not held before, and other kinds of locks, use {@code keyTimeToLive}.
+     */
+    private boolean adaptiveLease = false;
+
+    /**
+     * Shortest TTL in milliseconds of an adaptive lease
+     */
+    private long minKeyTimeToLive = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Longest TTL in milliseconds of an adaptive lease
+     */
+    private long maxKeyTimeToLive = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Maps a lock key to the group whose hold times its adaptive lease is picked from, for example its prefix,
+     * or {@code null} to track each key on its own
+     */
+    private Function<String, String> holdTimeGroup;
+
+    /**
+     * Lease in milliseconds of a waiting client's registration in Redis:
+     * its entry in the waiter queue of a fair lock, or the write intent of a read-write lock.
+     * <p>
+     * Waiters refresh their registration at least every half lease; a registration that is not refreshed,
+     * for example because its node crashed, is ignored once it expires.
+     * This is also the time a client has to claim a fair lock handed off to it.
+     */
+    private long waiterLease = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Time in milliseconds a node keeps a lock in Redis after its last local unlock, or 0 to release it right away.
+     * <p>
+     * A node locking the same key again within this time does not need a round trip to Redis.
+     * A node that fails to acquire a lock publishes a "wanted" signal for it, upon which the holder gives up
+     * a cached lock immediately, or on its next unlock if the lock is in use. The signal is only published
+     * by nodes that enable lease caching, so all nodes sharing locks should use it alike.
+     * Fair locks are never cached.
+     */
+    private long leaseCacheIdleTimeout = 0;
+
+    /**
+     * Time in microseconds an unlock waits for concurrent unlocks to release their keys in Redis together, or 0.
+     * <p>
+     * Releases arriving while a batch is being released are batched anyway, so this only trades unlock latency
+     * for larger batches under a high unlock rate. Applies to the Jedis and Lettuce supports.
+     */
+    private long releaseBatchWindow = 0;
+
+    /**
+     * Maximum number of keys released in Redis in a single round trip
+     */
+    private int maxReleaseBatchSize = DEFAULT_MAX_RELEASE_BATCH_SIZE;
+
+    /**
+     * Number of pooled connections the Jedis support sends concurrent commands over in shared pipelines,
+     * or 0 to send each command on a connection of its own.
+     * <p>
+     * Commands of concurrent callers, such as acquisitions of different keys, are then gathered into one pipeline
+     * per connection and round trip, so that throughput is bound by Redis rather than by the size of the pool.
+     * The Lettuce support always pipelines its commands over a single connection.
+     */
+    private int autoPipelineConnections = 0;
+
+    /**
+     * Metrics receiving measurements of lock acquisition, renewal and Redis round trips, see {@link LockMetrics}
+     */
+    private LockMetrics metrics = LockMetrics.NOOP;
+
+    /**
+     * Strategy for waiting between failed attempts to acquire a lock, see {@link WaitStrategy}
+     */
+    private WaitStrategy waitStrategy = WaitStrategy.parkUntilSignal();
+
+    /**
+     * Selects the wait strategy of a lock by its key, overriding {@code waitStrategy} when it returns non-null
+     */
+    private Function<String, WaitStrategy> waitStrategySelector;
+
+    /**
+     * Creates options with the given settings, and the defaults for all settings added since.
+     *
+     * @param channelId              Publish-subscribe release lock message topic
+     * @param clientId               Client ID for uniquely identifying different clients
+     * @param scheduler              Scheduler for renewing the TTL of locked keys
+     * @param commandAsyncExecutor   Asynchronous command executor
+     * @param keyTimeToLive          Lock's TTL in milliseconds
+     * @param renewalInterval        Lock renewal interval in milliseconds
+     * @param waitLimit              Maximum try interval for loop acquisition lock
+     * @param retrySubscribeInterval Retry subscribe interval in milliseconds
+     * @param maxReleaseDelay        Maximum release delay in milliseconds
+     */
+    public Option(String channelId, String clientId, ScheduledExecutorService scheduler, Executor commandAsyncExecutor,
+                  long keyTimeToLive, long renewalInterval, long waitLimit, long retrySubscribeInterval,
+                  long maxReleaseDelay) {
+        this.channelId = channelId;
+        this.clientId = clientId;
+        this.scheduler = scheduler;
+        this.commandAsyncExecutor = commandAsyncExecutor;
+        this.keyTimeToLive = keyTimeToLive;
+        this.renewalInterval = renewalInterval;
+        this.waitLimit = waitLimit;
+        this.retrySubscribeInterval = retrySubscribeInterval;
+        this.maxReleaseDelay = maxReleaseDelay;
+    }
+
+    /**
+     * Returns the wait strategy of the lock with the given key.
+     *
+     * @param key The lock key
+     * @return The strategy selected for the key, otherwise {@code waitStrategy}
+     */
+    public WaitStrategy waitStrategyOf(String key) {
+        WaitStrategy selected = waitStrategySelector == null ? null : waitStrategySelector.apply(key);
+        return selected != null ? selected : waitStrategy;
+    }
+
     /**
      * Factory method to create the default scheduler.
      *
@@ -0,0 +1,275 @@
+package io.github.nextentity.redis.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link SynchronizeSupport} spanning several independent Redis instances, following the Redlock algorithm.
+ * <p>
+ * Every command is sent to all instances concurrently, so its latency is that of the median instance rather than
+ * the sum of all of them. A lock counts as acquired once a majority of the instances set it within its validity
+ * window, that is, before its time to live minus the elapsed time and an allowance for clock drift runs out.
+ * Otherwise it is deleted again from every instance, including those whose reply is still outstanding.
+ * <p>
+ * Only plain and multi-key locks are supported; fair locks, read-write locks, semaphores and conditions keep
+ * state that cannot be merged from a majority of instances, so {@link LockFactory} refuses to create them.
+ */
+public class QuorumSynchronizeSupport implements SynchronizeSupport {
+    private static final Logger logger = LoggerFactory.getLogger(QuorumSynchronizeSupport.class);
+
+    // share of the time to live set aside for clock drift between the instances
+    private static final double CLOCK_DRIFT_FACTOR = 0.01;
+    private static final long MIN_CLOCK_DRIFT = 2;
+
+    private final List<SynchronizeSupport> instances;
+    private final int quorum;
+    private final Executor executor;
+
+    /**
+     * Constructs a QuorumSynchronizeSupport over the given instances.
+     *
+     * @param instances The support of each independent Redis instance
+     * @param option    Configuration options, whose {@link Option#getCommandAsyncExecutor()} sends the commands
+     */
+    public QuorumSynchronizeSupport(List<? extends SynchronizeSupport> instances, Option option) {
+        if (instances.isEmpty()) {
+            throw new IllegalArgumentException("At least one instance is required");
+        }
+        this.instances = List.copyOf(instances);
+        this.quorum = instances.size() / 2 + 1;
+        this.executor = option.getCommandAsyncExecutor();
+    }
+
+    @Override
+    public void batchSetTimeToLive(Collection<String> keys, long milliseconds) {
+        List<String> snapshot = List.copyOf(keys);
+        Votes<Boolean> votes = vote(instance -> {
+            instance.batchSetTimeToLive(snapshot, milliseconds);
+            return true;
+        }, Boolean.TRUE::equals, milliseconds);
+        if (votes.successes() < quorum) {
+            logger.warn("Renewed keys on {} of {} instances: {}", votes.successes(), instances.size(), snapshot);
+        }
+    }
+
+    @Override
+    public List<String> renewIfOwned(Collection<String> keys, String value, long ttl) {
+        List<String> snapshot = List.copyOf(keys);
+        List<CompletableFuture<List<String>>> results = new ArrayList<>(instances.size());
+        for (SynchronizeSupport instance : instances) {
+            results.add(CompletableFuture.supplyAsync(() -> instance.renewIfOwned(snapshot, value, ttl), executor));
+        }
+        // every reply counts, since a key owned on a bare majority is lost once one of them disowns it
+        try {
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(ttl, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // counted below as the instance not owning any key
+        } catch (TimeoutException e) {
+            logger.warn("Not all of {} instances replied within {} ms", instances.size(), ttl);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // a key is owned on an instance that renewed without error and did not report it as not owned
+        Map<String, Integer> owners = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            CompletableFuture<List<String>> result = results.get(i);
+            if (result.isCompletedExceptionally()) {
+                logger.warn("Error renewing keys on {}", instances.get(i), result.exceptionNow());
+            } else if (result.isDone()) {
+                Set<String> notOwned = new HashSet<>(result.join());
+                for (String key : snapshot) {
+                    if (!notOwned.contains(key)) {
+                        owners.merge(key, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        List<String> lost = new ArrayList<>();
+        for (String key : snapshot) {
+            if (owners.getOrDefault(key, 0) < quorum) {
+                lost.add(key);
+            }
+        }
+        return lost;
+    }
+
+    @Override
+    public boolean deleteIfValueEquals(String key, String expectedValue) {
+        return vote(instance -> instance.deleteIfValueEquals(key, expectedValue),
+                Boolean.TRUE::equals, Long.MAX_VALUE).successes() >= quorum;
+    }
+
+    @Override
+    public Long setIfAbsentOrGetRemainingTTL(String key, String value, long ttl) {
+        return acquire(instance -> instance.setIfAbsentOrGetRemainingTTL(key, value, ttl),
+                instance -> instance.deleteIfValueEquals(key, value), ttl);
+    }
+
+    @Override
+    public Long setAllIfAbsentOrGetRemainingTTL(List<String> keys, String value, long ttl) {
+        return acquire(instance -> instance.setAllIfAbsentOrGetRemainingTTL(keys, value, ttl),
+                instance -> instance.deleteAllIfValueEquals(keys, value), ttl);
+    }
+
+    @Override
+    public boolean deleteAllIfValueEquals(List<String> keys, String expectedValue) {
+        return vote(instance -> instance.deleteAllIfValueEquals(keys, expectedValue),
+                Boolean.TRUE::equals, Long.MAX_VALUE).successes() >= quorum;
+    }
+
+    /**
+     * Acquires on a majority of the instances within the validity window, or undoes the attempt on all of them.
+     *
+     * @return {@code null} if acquired, otherwise the time (milliseconds) until enough instances should be free
+     */
+    private Long acquire(Function<SynchronizeSupport, Long> attempt, Consumer<SynchronizeSupport> undo, long ttl) {
+        long start = System.currentTimeMillis();
+        long drift = (long) (ttl * CLOCK_DRIFT_FACTOR) + MIN_CLOCK_DRIFT;
+        Votes<Long> votes = vote(attempt, Objects::isNull, ttl - drift);
+        long validity = ttl - (System.currentTimeMillis() - start) - drift;
+        if (votes.successes() >= quorum && validity > 0) {
+            return null;
+        }
+        rollback(votes.results(), undo);
+        // the instances just undone are free, so the lock is worth retrying once enough of the others expire
+        List<Long> remainingTTLs = new ArrayList<>();
+        for (CompletableFuture<Long> result : votes.results()) {
+            if (result.isDone() && !result.isCompletedExceptionally() && result.join() != null) {
+                remainingTTLs.add(result.join());
+            }
+        }
+        remainingTTLs.sort(null);
+        int index = quorum - votes.successes() - 1;
+        return index >= 0 && index < remainingTTLs.size() ? remainingTTLs.get(index) : 0L;
+    }
+
+    /**
+     * Undoes a command on every instance once its reply has arrived,
+     * waiting only for the instances that have already replied.
+     */
+    private <T> void rollback(List<CompletableFuture<T>> results, Consumer<SynchronizeSupport> undo) {
+        List<CompletableFuture<?>> replied = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            SynchronizeSupport instance = instances.get(i);
+            CompletableFuture<T> result = results.get(i);
+            boolean done = result.isDone();
+            CompletableFuture<?> undone = result.handleAsync((r, e) -> {
+                undo.accept(instance);
+                return null;
+            }, executor).whenComplete((r, e) -> {
+                if (e != null) {
+                    logger.warn("Error rolling back on {}", instance, e);
+                }
+            });
+            if (done) {
+                replied.add(undone);
+            }
+        }
+        try {
+            CompletableFuture.allOf(replied.toArray(new CompletableFuture[0])).join();
+        } catch (RuntimeException e) {
+            // already logged
+        }
+    }
+
+    /**
+     * Sends {@code command} to all instances concurrently and waits until {@code success} holds for a majority,
+     * a majority can no longer be reached, or {@code timeoutMillis} elapses.
+     */
+    private <T> Votes<T> vote(Function<SynchronizeSupport, T> command, Predicate<T> success, long timeoutMillis) {
+        CountDownLatch decided = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<T>> results = new ArrayList<>(instances.size());
+        for (SynchronizeSupport instance : instances) {
+            CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> command.apply(instance), executor);
+            result.whenComplete((value, e) -> {
+                if (e == null && success.test(value)) {
+                    if (successes.incrementAndGet() == quorum) {
+                        decided.countDown();
+                    }
+                } else {
+                    if (e != null) {
+                        logger.warn("Error executing command on {}", instance, e);
+                    }
+                    if (failures.incrementAndGet() == instances.size() - quorum + 1) {
+                        decided.countDown();
+                    }
+                }
+            });
+            results.add(result);
+        }
+        try {
+            if (!decided.await(Math.max(0, timeoutMillis), TimeUnit.MILLISECONDS)) {
+                logger.warn("No majority of {} instances replied within {} ms", instances.size(), timeoutMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Votes<>(successes.get(), results);
+    }
+
+    private record Votes<T>(int successes, List<CompletableFuture<T>> results) {
+    }
+
+    @Override
+    public void publishKey(String key) {
+        vote(instance -> {
+            instance.publishKey(key);
+            return true;
+        }, Boolean.TRUE::equals, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Cancelable subscribeToKey(String key, Runnable callback) {
+        // a release is published on every instance, so the callback may run once per instance
+        List<Cancelable> subscriptions = new ArrayList<>(instances.size());
+        for (SynchronizeSupport instance : instances) {
+            subscriptions.add(instance.subscribeToKey(key, callback));
+        }
+        return () -> subscriptions.forEach(Cancelable::cancel);
+    }
+
+    @Override
+    public boolean isSupported(Feature feature) {
+        return feature == Feature.MULTI_KEY_LOCKS;
+    }
+
+    @Override
+    public void close() throws Exception {
+        Exception failure = null;
+        for (SynchronizeSupport instance : instances) {
+            try {
+                instance.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
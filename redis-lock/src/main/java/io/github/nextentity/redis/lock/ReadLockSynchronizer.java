@@ -0,0 +1,34 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.List;
+
+/**
+ * Synchronizer for the read share a node holds on a read-write lock.
+ * <p>
+ * Every reading node holds its own leased share, scored by its expiry in the readers sorted set, so the share
+ * of a crashed node expires without being kept alive by the renewals of other readers.
+ */
+public class ReadLockSynchronizer extends LockSynchronizer {
+
+    /**
+     * Constructs a ReadLockSynchronizer with the specified parameters.
+     *
+     * @param support        SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager LockKeyManager for managing lock keys
+     * @param key            The lock key
+     * @param option         Configuration options
+     */
+    public ReadLockSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, String key, Option option) {
+        super(support, lockKeyManager, key, option, option.getWaitLimit(), List.of(KeyNames.readers(key)));
+    }
+
+    @Override
+    protected Long acquireOrGetRemainingTTL(boolean waiting) {
+        return support.tryAcquireReadLock(key, clientId, timeToLiveMillis);
+    }
+
+    @Override
+    protected boolean release() {
+        return support.releaseReadLock(key, clientId);
+    }
+}
@@ -0,0 +1,351 @@
+package io.github.nextentity.redis.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A distributed lock implementation using Redis that does not block callers.
+ * <p>
+ * Pending acquisitions are queued locally and only the first one contends in Redis. Instead of parking a thread,
+ * it is retried when the release notification arrives or a timer on {@link Option#getScheduler()} fires,
+ * and Redis commands run on {@link Option#getCommandAsyncExecutor()}, so a pending acquisition costs no thread.
+ * As with {@link RedisLock}, the lock is handed directly to the next local acquisition on unlock
+ * unless it has been held for longer than {@link Option#getMaxReleaseDelay()}.
+ */
+public class RedisAsyncLock implements AsyncLock {
+    private static final Logger logger = LoggerFactory.getLogger(RedisAsyncLock.class);
+
+    private final LockSynchronizer synchronizer;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final long maxReleaseDelayMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // the fields below are guarded by lock
+    private final Deque<Acquisition> queue = new ArrayDeque<>();
+    // the synchronizer holds the lock in Redis
+    private boolean held;
+    // a completed acquisition owns the lock
+    private boolean owned;
+    // a Redis command is in flight
+    private boolean busy;
+    // a release notification arrived during an attempt
+    private boolean retry;
+    // a failed attempt left this client waiting in Redis
+    private boolean contending;
+    private SynchronizeSupport.Cancelable subscription;
+    private ScheduledFuture<?> retryTimer;
+
+    /**
+     * Constructs a RedisAsyncLock with the specified synchronizer and options.
+     *
+     * @param synchronizer The synchronizer for managing Redis operations
+     * @param option       Configuration options
+     */
+    public RedisAsyncLock(LockSynchronizer synchronizer, Option option) {
+        this.synchronizer = synchronizer;
+        this.executor = option.getCommandAsyncExecutor();
+        this.scheduler = option.getScheduler();
+        this.maxReleaseDelayMillis = option.getMaxReleaseDelay();
+    }
+
+    @Override
+    public CompletableFuture<Void> lockAsync() {
+        Acquisition acquisition = enqueue(Long.MAX_VALUE);
+        CompletableFuture<Void> result = acquisition.future.thenApply(acquired -> null);
+        result.whenComplete((r, e) -> {
+            // if the acquisition completed before it could be cancelled, the lock is owned by it
+            if (result.isCancelled() && !acquisition.future.cancel(false)
+                && !acquisition.future.isCompletedExceptionally()) {
+                unlockAsync();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(long time, TimeUnit unit) {
+        return enqueue(System.currentTimeMillis() + unit.toMillis(time)).future;
+    }
+
+    @Override
+    public CompletableFuture<Void> unlockAsync() {
+        boolean handOver;
+        lock.lock();
+        try {
+            if (!owned) {
+                return CompletableFuture.failedFuture(
+                        new IllegalMonitorStateException(synchronizer.getKey() + " is not locked"));
+            }
+            owned = false;
+            Long lockedTime = synchronizer.getLockedTime();
+            handOver = !queue.isEmpty() && lockedTime != null
+                       && System.currentTimeMillis() - lockedTime <= maxReleaseDelayMillis;
+        } finally {
+            lock.unlock();
+        }
+        if (handOver) {
+            // completing the next acquisition runs its callbacks, which may unlock again,
+            // so hand over on the executor rather than recursing on the caller's stack
+            executor.execute(this::handOver);
+            return CompletableFuture.completedFuture(null);
+        }
+        return release();
+    }
+
+    public boolean isLocked() {
+        lock.lock();
+        try {
+            return owned;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Acquisition enqueue(long deadline) {
+        Acquisition acquisition = new Acquisition();
+        lock.lock();
+        try {
+            queue.add(acquisition);
+        } finally {
+            lock.unlock();
+        }
+        if (deadline != Long.MAX_VALUE) {
+            long delay = Math.max(0, deadline - System.currentTimeMillis());
+            acquisition.timeout = scheduler.schedule(() -> acquisition.future.complete(false), delay, TimeUnit.MILLISECONDS);
+        }
+        acquisition.future.whenComplete((acquired, e) -> {
+            if (!Boolean.TRUE.equals(acquired)) {
+                withdraw(acquisition);
+            }
+        });
+        drive();
+        return acquisition;
+    }
+
+    private void withdraw(Acquisition acquisition) {
+        lock.lock();
+        try {
+            queue.remove(acquisition);
+        } finally {
+            lock.unlock();
+        }
+        if (acquisition.timeout != null) {
+            acquisition.timeout.cancel(false);
+        }
+        drive();
+    }
+
+    /**
+     * Starts the next Redis command the state calls for, unless one is in flight or the lock is held.
+     */
+    private void drive() {
+        Runnable action = null;
+        SynchronizeSupport.Cancelable unsubscribe = null;
+        lock.lock();
+        try {
+            if (busy || held) {
+                return;
+            }
+            if (!queue.isEmpty()) {
+                busy = true;
+                retry = false;
+                action = this::attempt;
+            } else if (contending) {
+                busy = true;
+                action = this::abandonAttempt;
+            } else {
+                cancelRetryTimer();
+                unsubscribe = subscription;
+                subscription = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (unsubscribe != null) {
+            unsubscribe.cancel();
+        }
+        if (action != null) {
+            executor.execute(action);
+        }
+    }
+
+    private void attempt() {
+        Long waitTime;
+        try {
+            // subscribe before the attempt so that a release right after it is not missed
+            subscribe();
+            waitTime = synchronizer.attemptAcquireLock();
+        } catch (RuntimeException e) {
+            logger.warn("Error acquiring {}", synchronizer.getKey(), e);
+            Acquisition head;
+            lock.lock();
+            try {
+                busy = false;
+                head = queue.peek();
+            } finally {
+                lock.unlock();
+            }
+            if (head == null || !head.future.completeExceptionally(e)) {
+                drive();
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            busy = false;
+            if (waitTime == null) {
+                contending = false;
+                held = true;
+            } else {
+                contending = true;
+                if (!retry && !queue.isEmpty()) {
+                    cancelRetryTimer();
+                    retryTimer = scheduler.schedule(this::wake, waitTime, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (waitTime == null) {
+            handOver();
+        } else {
+            drive();
+        }
+    }
+
+    private void abandonAttempt() {
+        boolean acquired;
+        try {
+            acquired = synchronizer.abandonAttempt();
+        } catch (RuntimeException e) {
+            logger.warn("Error abandoning acquisition of {}", synchronizer.getKey(), e);
+            acquired = false;
+        }
+        lock.lock();
+        try {
+            busy = false;
+            contending = false;
+            held = acquired;
+        } finally {
+            lock.unlock();
+        }
+        if (acquired) {
+            handOver();
+        } else {
+            drive();
+        }
+    }
+
+    private void subscribe() {
+        lock.lock();
+        try {
+            if (subscription != null) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // only the in-flight attempt subscribes, so no other subscription can be made meanwhile
+        SynchronizeSupport.Cancelable cancelable = synchronizer.subscribeToRelease(this::wake);
+        lock.lock();
+        try {
+            subscription = cancelable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void wake() {
+        lock.lock();
+        try {
+            cancelRetryTimer();
+            if (busy) {
+                retry = true;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        drive();
+    }
+
+    private void cancelRetryTimer() {
+        if (retryTimer != null) {
+            retryTimer.cancel(false);
+            retryTimer = null;
+        }
+    }
+
+    /**
+     * Gives the held lock to the first pending acquisition, or releases it if there is none.
+     */
+    private void handOver() {
+        while (true) {
+            Acquisition head;
+            lock.lock();
+            try {
+                head = queue.poll();
+                owned = head != null;
+            } finally {
+                lock.unlock();
+            }
+            if (head == null) {
+                release();
+                return;
+            }
+            if (head.timeout != null) {
+                head.timeout.cancel(false);
+            }
+            if (head.future.complete(true)) {
+                return;
+            }
+            // timed out or cancelled meanwhile
+            lock.lock();
+            try {
+                owned = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> release() {
+        lock.lock();
+        try {
+            busy = true;
+        } finally {
+            lock.unlock();
+        }
+        CompletableFuture<Void> released = CompletableFuture.runAsync(synchronizer::releaseLock, executor);
+        released.whenComplete((r, e) -> {
+            if (e != null) {
+                logger.warn("Error releasing {}", synchronizer.getKey(), e);
+            }
+            lock.lock();
+            try {
+                busy = false;
+                held = false;
+            } finally {
+                lock.unlock();
+            }
+            drive();
+        });
+        return released;
+    }
+
+    private static final class Acquisition {
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+    }
+}
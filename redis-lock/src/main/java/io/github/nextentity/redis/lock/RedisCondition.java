@@ -0,0 +1,108 @@
+package io.github.nextentity.redis.lock;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * A distributed condition of a {@link RedisLock}.
+ * <p>
+ * Awaiting queues the thread in Redis and releases the distributed lock; signals are delivered through
+ * the release channels, after which the lock is reacquired. A thread may be woken without being signalled
+ * if its signal cannot be delivered, which callers must tolerate as with any {@link Condition}.
+ */
+public class RedisCondition implements Condition {
+
+    private final RedisLock lock;
+    private final ConditionSynchronizer synchronizer;
+
+    /**
+     * Constructs a RedisCondition of the specified lock.
+     *
+     * @param lock         The lock the condition belongs to
+     * @param synchronizer The synchronizer for managing Redis operations
+     */
+    public RedisCondition(RedisLock lock, ConditionSynchronizer synchronizer) {
+        this.lock = lock;
+        this.synchronizer = synchronizer;
+    }
+
+    @Override
+    public void await() throws InterruptedException {
+        awaitUntil(Long.MAX_VALUE, true);
+    }
+
+    @Override
+    public void awaitUninterruptibly() {
+        try {
+            awaitUntil(Long.MAX_VALUE, false);
+        } catch (InterruptedException e) {
+            // not thrown when uninterruptible
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public long awaitNanos(long nanosTimeout) throws InterruptedException {
+        long start = System.nanoTime();
+        awaitUntil(System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(nanosTimeout), true);
+        return nanosTimeout - (System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean await(long time, @NotNull TimeUnit unit) throws InterruptedException {
+        return awaitUntil(System.currentTimeMillis() + unit.toMillis(time), true);
+    }
+
+    @Override
+    public boolean awaitUntil(@NotNull Date deadline) throws InterruptedException {
+        return awaitUntil(deadline.getTime(), true);
+    }
+
+    private boolean awaitUntil(long deadline, boolean interruptible) throws InterruptedException {
+        if (interruptible && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        ConditionSynchronizer.Waiter waiter = synchronizer.addWaiter();
+        int holdCount;
+        try {
+            holdCount = lock.releaseFully();
+        } catch (RuntimeException e) {
+            synchronizer.awaitSignal(waiter, 0, false);
+            throw e;
+        }
+        boolean signalled = synchronizer.awaitSignal(waiter, deadline, interruptible);
+        boolean interrupted = Thread.interrupted();
+        lock.reacquire(holdCount);
+        if (interrupted) {
+            if (interruptible && !signalled) {
+                throw new InterruptedException();
+            }
+            Thread.currentThread().interrupt();
+        }
+        return signalled;
+    }
+
+    @Override
+    public void signal() {
+        checkHeld();
+        synchronizer.signal(false);
+    }
+
+    @Override
+    public void signalAll() {
+        checkHeld();
+        synchronizer.signal(true);
+    }
+
+    private void checkHeld() {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+    }
+}
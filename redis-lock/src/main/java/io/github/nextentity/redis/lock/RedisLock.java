@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -11,13 +12,36 @@ import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A distributed lock implementation using Redis.
+ * <p>
+ * Conditions are identified by name, so conditions with the same name on the same key
+ * are one condition across all clients.
+ * <p>
+ * With lease caching, see {@link Option#getLeaseCacheIdleTimeout()}, the lock is kept in Redis after the last
+ * local unlock until another node asks for it or it has been idle for the configured time.
  */
 public class RedisLock implements Lock {
 
-    private final ReentrantLock localLock = new ReentrantLock();
+    /**
+     * Name of the condition returned by {@link #newCondition()}
+     */
+    public static final String DEFAULT_CONDITION = "default";
+
+    private final ReentrantLock localLock;
     private final LockSynchronizer synchronizer;
     private final Executor asyncExecutor;
     private final long maxReleaseDelayMillis;
+    private final boolean fair;
+    private final ScheduledExecutorService scheduler;
+    private final long leaseCacheIdleTimeoutMillis;
+
+    // set when another node asked for the lock while this node holds it in Redis
+    private volatile boolean wanted;
+    // the fields below are guarded by localLock
+    private SynchronizeSupport.Cancelable wantedSubscription;
+    // when the current thread took the lock locally, so that a cached lease does not count as held
+    private long heldSince;
+    private long lastUnlockTime;
+    private boolean idleTimerScheduled;
 
     /**
      * Constructs a RedisLock with the specified synchronizer, executor, and maximum release delay.
@@ -27,9 +51,44 @@ public class RedisLock implements Lock {
      * @param maxReleaseDelayMillis The maximum delay for releasing the lock
      */
     public RedisLock(LockSynchronizer synchronizer, Executor asyncExecutor, long maxReleaseDelayMillis) {
+        this(synchronizer, asyncExecutor, maxReleaseDelayMillis, false);
+    }
+
+    /**
+     * Constructs a RedisLock with the specified fairness policy.
+     * <p>
+     * A fair lock uses a fair local lock and always releases the distributed lock on the last unlock,
+     * instead of keeping it for local waiters, so that waiters on other nodes are served in order.
+     *
+     * @param synchronizer          The synchronizer for managing Redis operations
+     * @param asyncExecutor         The executor for asynchronous operations
+     * @param maxReleaseDelayMillis The maximum delay for releasing the lock
+     * @param fair                  {@code true} if this lock should use a fair ordering policy
+     */
+    public RedisLock(LockSynchronizer synchronizer, Executor asyncExecutor, long maxReleaseDelayMillis, boolean fair) {
+        this(synchronizer, asyncExecutor, maxReleaseDelayMillis, fair, null, 0);
+    }
+
+    /**
+     * Constructs a non-fair RedisLock configured by the specified options, including lease caching.
+     *
+     * @param synchronizer The synchronizer for managing Redis operations
+     * @param option       Configuration options
+     */
+    public RedisLock(LockSynchronizer synchronizer, Option option) {
+        this(synchronizer, option.getCommandAsyncExecutor(), option.getMaxReleaseDelay(), false,
+                option.getScheduler(), option.getLeaseCacheIdleTimeout());
+    }
+
+    private RedisLock(LockSynchronizer synchronizer, Executor asyncExecutor, long maxReleaseDelayMillis, boolean fair,
+                      ScheduledExecutorService scheduler, long leaseCacheIdleTimeoutMillis) {
+        this.localLock = new ReentrantLock(fair);
         this.synchronizer = synchronizer;
         this.asyncExecutor = asyncExecutor;
         this.maxReleaseDelayMillis = maxReleaseDelayMillis;
+        this.fair = fair;
+        this.scheduler = scheduler;
+        this.leaseCacheIdleTimeoutMillis = fair ? 0 : leaseCacheIdleTimeoutMillis;
     }
 
     @Override
@@ -47,9 +106,12 @@ public class RedisLock implements Lock {
     private void acquireLock() {
         try {
             if (!synchronizer.isLocked()) {
+                watchWanted();
                 synchronizer.acquireLock();
             }
+            markHeld();
         } catch (Throwable throwable) {
+            unwatchWanted();
             localLock.unlock();
             throw throwable;
         }
@@ -59,11 +121,13 @@ public class RedisLock implements Lock {
     public boolean tryLock() {
         if (localLock.tryLock()) {
             try {
-                return synchronizer.isLocked() || synchronizer.tryAcquireLock();
-            } finally {
-                if (!synchronizer.isLocked()) {
-                    localLock.unlock();
+                if (synchronizer.isLocked()) {
+                    return true;
                 }
+                watchWanted();
+                return synchronizer.tryAcquireLock();
+            } finally {
+                onTryLocked();
             }
         }
         return false;
@@ -77,16 +141,33 @@ public class RedisLock implements Lock {
                 if (synchronizer.isLocked()) {
                     return true;
                 }
+                watchWanted();
                 return synchronizer.tryAcquireLockUntil(deadline);
             } finally {
-                if (!synchronizer.isLocked()) {
-                    localLock.unlock();
-                }
+                onTryLocked();
             }
         }
         return false;
     }
 
+    /**
+     * Completes a local lock taken by a try, keeping it only if the distributed lock is held.
+     */
+    private void onTryLocked() {
+        if (synchronizer.isLocked()) {
+            markHeld();
+        } else {
+            unwatchWanted();
+            localLock.unlock();
+        }
+    }
+
+    private void markHeld() {
+        if (localLock.getHoldCount() == 1) {
+            heldSince = System.currentTimeMillis();
+        }
+    }
+
     @Override
     public void unlock() {
         int holdCount = localLock.getHoldCount();
@@ -103,7 +184,10 @@ public class RedisLock implements Lock {
     private void handleUnlock() {
         Long lockedTime = synchronizer.getLockedTime();
         Objects.requireNonNull(lockedTime, "Locked time cannot be null");
-        if (localLock.getQueueLength() == 0 || System.currentTimeMillis() - lockedTime > maxReleaseDelayMillis) {
+        synchronizer.recordHoldTime(System.currentTimeMillis() - heldSince);
+        if (leaseCacheIdleTimeoutMillis > 0 && !wanted) {
+            cacheLease();
+        } else if (fair || localLock.getQueueLength() == 0 || System.currentTimeMillis() - lockedTime > maxReleaseDelayMillis) {
             releaseSynchronizer();
         } else {
             releaseSynchronizerAsync();
@@ -111,23 +195,110 @@ public class RedisLock implements Lock {
     }
 
     private void releaseSynchronizer() {
-        synchronizer.releaseLock();
+        releaseDistributed(LockReleaseEvent.SYNC);
         localLock.unlock();
     }
 
+    /**
+     * Releases the distributed lock, which the current thread holds locally.
+     */
+    private void releaseDistributed(String path) {
+        LockReleaseEvent event = new LockReleaseEvent();
+        event.begin();
+        unwatchWanted();
+        synchronizer.releaseLock();
+        event.complete(synchronizer.getKey(), path);
+    }
+
     private void releaseSynchronizerAsync() {
         localLock.unlock();
-        asyncExecutor.execute(() -> {
-            if (localLock.tryLock()) {
-                try {
-                    if (localLock.getHoldCount() == 1 && synchronizer.isLocked()) {
-                        synchronizer.releaseLock();
-                    }
-                } finally {
-                    localLock.unlock();
+        asyncExecutor.execute(this::releaseIfUnused);
+    }
+
+    /**
+     * Releases the distributed lock unless it is used locally.
+     */
+    private void releaseIfUnused() {
+        if (localLock.tryLock()) {
+            try {
+                if (localLock.getHoldCount() == 1 && synchronizer.isLocked()) {
+                    releaseDistributed(LockReleaseEvent.ASYNC);
                 }
+            } finally {
+                localLock.unlock();
             }
-        });
+        }
+    }
+
+    /**
+     * Keeps the distributed lock after the last local unlock, until it is wanted or idle.
+     */
+    private void cacheLease() {
+        lastUnlockTime = System.currentTimeMillis();
+        if (!idleTimerScheduled) {
+            idleTimerScheduled = true;
+            scheduler.schedule(this::expireCachedLease, leaseCacheIdleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        localLock.unlock();
+        // the lock may have been wanted while it was in use, after the check in handleUnlock
+        if (wanted) {
+            asyncExecutor.execute(this::releaseIfUnused);
+        }
+    }
+
+    /**
+     * Runs on the scheduler, which also renews the lock keys, so the release itself goes to the async executor.
+     */
+    private void expireCachedLease() {
+        if (!localLock.tryLock()) {
+            // in use, so check again later; the timer stays scheduled
+            scheduler.schedule(this::expireCachedLease, leaseCacheIdleTimeoutMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        boolean expired = false;
+        try {
+            idleTimerScheduled = false;
+            if (localLock.getHoldCount() != 1 || !synchronizer.isLocked()) {
+                return;
+            }
+            long idleTime = System.currentTimeMillis() - lastUnlockTime;
+            if (idleTime >= leaseCacheIdleTimeoutMillis) {
+                expired = true;
+            } else {
+                idleTimerScheduled = true;
+                scheduler.schedule(this::expireCachedLease, leaseCacheIdleTimeoutMillis - idleTime, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            localLock.unlock();
+        }
+        if (expired) {
+            asyncExecutor.execute(this::releaseIfUnused);
+        }
+    }
+
+    /**
+     * Subscribes to the "wanted" signals of the lock before it is acquired in Redis, if leases are cached.
+     */
+    private void watchWanted() {
+        if (leaseCacheIdleTimeoutMillis > 0 && wantedSubscription == null) {
+            wanted = false;
+            wantedSubscription = synchronizer.subscribeToWanted(this::onWanted);
+        }
+    }
+
+    private void unwatchWanted() {
+        if (wantedSubscription != null) {
+            wantedSubscription.cancel();
+            wantedSubscription = null;
+        }
+    }
+
+    private void onWanted() {
+        // ignore the signal this node published itself while it was waiting for the lock
+        if (synchronizer.isLocked()) {
+            wanted = true;
+            asyncExecutor.execute(this::releaseIfUnused);
+        }
     }
 
     public boolean isHeldByCurrentThread() {
@@ -142,9 +313,57 @@ public class RedisLock implements Lock {
         return localLock.getHoldCount();
     }
 
+    /**
+     * Returns the default condition of this lock.
+     *
+     * @return The condition named {@value #DEFAULT_CONDITION}
+     */
     @NotNull
     @Override
     public Condition newCondition() {
-        throw new UnsupportedOperationException("newCondition is not supported in RedisLock");
+        return newCondition(DEFAULT_CONDITION);
+    }
+
+    /**
+     * Returns the condition with the given name of this lock.
+     *
+     * @param name The condition name
+     * @return The condition
+     * @throws UnsupportedOperationException if the synchronize support does not implement conditions
+     */
+    @NotNull
+    public Condition newCondition(@NotNull String name) {
+        return new RedisCondition(this, synchronizer.newConditionSynchronizer(name));
+    }
+
+    /**
+     * Fully releases the lock held by the current thread, for waiting on a condition.
+     *
+     * @return The hold count to restore with {@link #reacquire(int)}
+     */
+    int releaseFully() {
+        int holdCount = localLock.getHoldCount();
+        if (holdCount <= 0 || !synchronizer.isLocked()) {
+            throw new IllegalMonitorStateException();
+        }
+        for (int i = 1; i < holdCount; i++) {
+            localLock.unlock();
+        }
+        synchronizer.recordHoldTime(System.currentTimeMillis() - heldSince);
+        // never cached, since a signaller on another node needs the lock while this thread waits
+        releaseSynchronizer();
+        return holdCount;
+    }
+
+    /**
+     * Reacquires the lock uninterruptibly after waiting on a condition.
+     *
+     * @param holdCount The hold count returned by {@link #releaseFully()}
+     */
+    void reacquire(int holdCount) {
+        lock();
+        for (int i = 1; i < holdCount; i++) {
+            localLock.lock();
+        }
     }
 }
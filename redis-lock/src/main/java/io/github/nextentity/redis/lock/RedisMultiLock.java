@@ -0,0 +1,181 @@
+package io.github.nextentity.redis.lock;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A distributed lock over several keys using Redis.
+ * <p>
+ * The local lock of each key is taken in canonical key order, after which all keys are set in Redis
+ * by a single script, or none of them. Because every multi-key lock takes its keys in the same order,
+ * callers naming the same keys in different orders cannot deadlock.
+ * A thread holding a multi-key lock cannot take another one sharing some of its keys: that would wait for
+ * the thread itself, so it throws {@link IllegalMonitorStateException} instead.
+ * The distributed lock is released as soon as the last hold is released.
+ */
+public class RedisMultiLock implements Lock {
+
+    private final List<ReentrantLock> localLocks;
+    private final LockSynchronizer synchronizer;
+
+    // guarded by the local locks
+    private int holdCount;
+
+    /**
+     * Constructs a RedisMultiLock with the specified local locks and synchronizer.
+     *
+     * @param localLocks   The local lock of each key, in canonical key order
+     * @param synchronizer The synchronizer for managing Redis operations
+     */
+    public RedisMultiLock(List<ReentrantLock> localLocks, LockSynchronizer synchronizer) {
+        this.localLocks = localLocks;
+        this.synchronizer = synchronizer;
+    }
+
+    @Override
+    public void lock() {
+        checkNotHeldByOverlappingLock();
+        for (ReentrantLock localLock : localLocks) {
+            localLock.lock();
+        }
+        acquireLock();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        checkNotHeldByOverlappingLock();
+        int locked = 0;
+        try {
+            for (ReentrantLock localLock : localLocks) {
+                localLock.lockInterruptibly();
+                locked++;
+            }
+        } catch (InterruptedException e) {
+            unlockLocal(locked);
+            throw e;
+        }
+        acquireLock();
+    }
+
+    private void acquireLock() {
+        try {
+            if (holdCount == 0) {
+                synchronizer.acquireLock();
+            }
+            holdCount++;
+        } catch (Throwable throwable) {
+            unlockLocal(localLocks.size());
+            throw throwable;
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        checkNotHeldByOverlappingLock();
+        for (int i = 0; i < localLocks.size(); i++) {
+            if (!localLocks.get(i).tryLock()) {
+                unlockLocal(i);
+                return false;
+            }
+        }
+        return tryAcquireLock(0);
+    }
+
+    @Override
+    public boolean tryLock(long time, @NotNull TimeUnit unit) throws InterruptedException {
+        checkNotHeldByOverlappingLock();
+        long deadline = System.currentTimeMillis() + unit.toMillis(time);
+        for (int i = 0; i < localLocks.size(); i++) {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            boolean locked;
+            try {
+                locked = localLocks.get(i).tryLock(remaining, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                unlockLocal(i);
+                throw e;
+            }
+            if (!locked) {
+                unlockLocal(i);
+                return false;
+            }
+        }
+        return tryAcquireLock(deadline);
+    }
+
+    private boolean tryAcquireLock(long deadline) {
+        boolean acquired = false;
+        try {
+            acquired = holdCount > 0
+                       || (deadline == 0 ? synchronizer.tryAcquireLock() : synchronizer.tryAcquireLockUntil(deadline));
+            if (acquired) {
+                holdCount++;
+            }
+            return acquired;
+        } finally {
+            if (!acquired) {
+                unlockLocal(localLocks.size());
+            }
+        }
+    }
+
+    @Override
+    public void unlock() {
+        if (!isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        try {
+            if (--holdCount == 0) {
+                synchronizer.releaseLock();
+            }
+        } finally {
+            unlockLocal(localLocks.size());
+        }
+    }
+
+    /**
+     * Fails if the current thread holds a key of this lock through another multi-key lock.
+     * Its key is then set in Redis by this client, so this lock would wait for the current thread itself.
+     * <p>
+     * Reading {@code holdCount} is safe here: it only changes under all local locks,
+     * and the current thread holds at least one of them when it is read.
+     */
+    private void checkNotHeldByOverlappingLock() {
+        for (ReentrantLock localLock : localLocks) {
+            if (localLock.isHeldByCurrentThread()) {
+                if (holdCount == 0) {
+                    throw new IllegalMonitorStateException(
+                            synchronizer.getKey() + " overlaps a multi-key lock held by the current thread");
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases the first {@code count} local locks in reverse order.
+     */
+    private void unlockLocal(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            localLocks.get(i).unlock();
+        }
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return localLocks.get(0).isHeldByCurrentThread() && holdCount > 0;
+    }
+
+    public int getHoldCount() {
+        return isHeldByCurrentThread() ? holdCount : 0;
+    }
+
+    @NotNull
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("newCondition is not supported in RedisMultiLock");
+    }
+}
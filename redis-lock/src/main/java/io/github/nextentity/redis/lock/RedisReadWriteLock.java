@@ -0,0 +1,263 @@
+package io.github.nextentity.redis.lock;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A distributed read-write lock implementation using Redis.
+ * <p>
+ * Readers and writers of the same node are coordinated by a local {@link ReentrantReadWriteLock}.
+ * A node takes a single read share in Redis for all of its concurrent readers, acquired by the first
+ * local reader and released by the last one, so same-node readers only reach Redis once.
+ */
+public class RedisReadWriteLock implements ReadWriteLock {
+
+    private final ReentrantReadWriteLock localLock = new ReentrantReadWriteLock();
+    // serializes acquiring and releasing the node's read share
+    private final ReentrantLock shareLock = new ReentrantLock();
+    private final LockSynchronizer readSynchronizer;
+    private final LockSynchronizer writeSynchronizer;
+    private final ReadLock readLock = new ReadLock();
+    private final WriteLock writeLock = new WriteLock();
+
+    // guarded by shareLock
+    private int localReaders;
+
+    /**
+     * Constructs a RedisReadWriteLock with the specified synchronizers.
+     *
+     * @param readSynchronizer  The synchronizer for the node's read share
+     * @param writeSynchronizer The synchronizer for the write lock
+     */
+    public RedisReadWriteLock(LockSynchronizer readSynchronizer, LockSynchronizer writeSynchronizer) {
+        this.readSynchronizer = readSynchronizer;
+        this.writeSynchronizer = writeSynchronizer;
+    }
+
+    @NotNull
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @NotNull
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    public boolean isWriteLockedByCurrentThread() {
+        return localLock.isWriteLockedByCurrentThread();
+    }
+
+    public int getReadHoldCount() {
+        return localLock.getReadHoldCount();
+    }
+
+    public int getWriteHoldCount() {
+        return localLock.getWriteHoldCount();
+    }
+
+    private boolean acquireShare(long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            shareLock.lock();
+        } else if (!tryLockShareUntil(deadline)) {
+            return false;
+        }
+        try {
+            if (localReaders == 0 && !acquireUntil(readSynchronizer, deadline)) {
+                return false;
+            }
+            localReaders++;
+            return true;
+        } finally {
+            shareLock.unlock();
+        }
+    }
+
+    /**
+     * Acquires a synchronizer, blocking if {@code deadline} is {@link Long#MAX_VALUE},
+     * trying once if it is 0, and waiting until it otherwise.
+     */
+    private static boolean acquireUntil(LockSynchronizer synchronizer, long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            synchronizer.acquireLock();
+            return true;
+        }
+        return deadline == 0 ? synchronizer.tryAcquireLock() : synchronizer.tryAcquireLockUntil(deadline);
+    }
+
+    private boolean tryLockShareUntil(long deadline) {
+        try {
+            return shareLock.tryLock(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void releaseShare() {
+        shareLock.lock();
+        try {
+            if (--localReaders == 0) {
+                readSynchronizer.recordHoldTime(System.currentTimeMillis() - readSynchronizer.getLockedTime());
+                readSynchronizer.releaseLock();
+            }
+        } finally {
+            shareLock.unlock();
+        }
+    }
+
+    private class ReadLock implements Lock {
+        private final Lock local = localLock.readLock();
+
+        @Override
+        public void lock() {
+            local.lock();
+            acquire();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            local.lockInterruptibly();
+            acquire();
+        }
+
+        private void acquire() {
+            try {
+                acquireShare(Long.MAX_VALUE);
+            } catch (Throwable throwable) {
+                local.unlock();
+                throw throwable;
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!local.tryLock()) {
+                return false;
+            }
+            return tryAcquire(0);
+        }
+
+        @Override
+        public boolean tryLock(long time, @NotNull TimeUnit unit) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + unit.toMillis(time);
+            if (!local.tryLock(time, unit)) {
+                return false;
+            }
+            return tryAcquire(deadline);
+        }
+
+        private boolean tryAcquire(long deadline) {
+            boolean acquired = false;
+            try {
+                acquired = acquireShare(deadline);
+                return acquired;
+            } finally {
+                if (!acquired) {
+                    local.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void unlock() {
+            if (localLock.getReadHoldCount() <= 0) {
+                throw new IllegalMonitorStateException();
+            }
+            try {
+                releaseShare();
+            } finally {
+                local.unlock();
+            }
+        }
+
+        @NotNull
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("newCondition is not supported by read locks");
+        }
+    }
+
+    private class WriteLock implements Lock {
+        private final Lock local = localLock.writeLock();
+
+        @Override
+        public void lock() {
+            local.lock();
+            acquire();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            local.lockInterruptibly();
+            acquire();
+        }
+
+        private void acquire() {
+            try {
+                if (!writeSynchronizer.isLocked()) {
+                    writeSynchronizer.acquireLock();
+                }
+            } catch (Throwable throwable) {
+                local.unlock();
+                throw throwable;
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!local.tryLock()) {
+                return false;
+            }
+            return tryAcquire(0);
+        }
+
+        @Override
+        public boolean tryLock(long time, @NotNull TimeUnit unit) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + unit.toMillis(time);
+            if (!local.tryLock(time, unit)) {
+                return false;
+            }
+            return tryAcquire(deadline);
+        }
+
+        private boolean tryAcquire(long deadline) {
+            try {
+                return writeSynchronizer.isLocked() || acquireUntil(writeSynchronizer, deadline);
+            } finally {
+                if (!writeSynchronizer.isLocked()) {
+                    local.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void unlock() {
+            if (!localLock.isWriteLockedByCurrentThread()) {
+                throw new IllegalMonitorStateException();
+            }
+            try {
+                if (localLock.getWriteHoldCount() == 1) {
+                    writeSynchronizer.recordHoldTime(System.currentTimeMillis() - writeSynchronizer.getLockedTime());
+                    writeSynchronizer.releaseLock();
+                }
+            } finally {
+                local.unlock();
+            }
+        }
+
+        @NotNull
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("newCondition is not supported by write locks");
+        }
+    }
+}
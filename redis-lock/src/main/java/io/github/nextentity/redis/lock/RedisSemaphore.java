@@ -0,0 +1,349 @@
+package io.github.nextentity.redis.lock;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A distributed counting semaphore using Redis.
+ * <p>
+ * Redis counts the permits held by each node, and a node's permits are leased: they are renewed while the node
+ * holds any and are reclaimed by other nodes once the lease of a crashed node expires.
+ * <p>
+ * Local callers waiting at the same time are queued, and a single request to Redis takes permits for as many
+ * of them as fit. Permits released while local callers wait are handed to them directly, without a round trip,
+ * for up to {@link Option#getMaxReleaseDelay()} after this node last took permits from Redis;
+ * after that they are returned to Redis so that other nodes get their turn.
+ */
+public class RedisSemaphore {
+    private static final Logger logger = LoggerFactory.getLogger(RedisSemaphore.class);
+
+    private final SynchronizeSupport support;
+    private final LockKeyManager lockKeyManager;
+    @Getter
+    private final String key;
+    @Getter
+    private final int permits;
+    private final String clientId;
+    private final long timeToLiveMillis;
+    private final long maxWaitTimeMillis;
+    private final long maxReleaseDelayMillis;
+    private final List<String> leaseKeys;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // the fields below are guarded by lock
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    // permits this node holds in Redis
+    private int held;
+    // whether a waiter is taking permits from Redis on behalf of the queue
+    private boolean fetching;
+    private long lastFetchTime;
+
+    /**
+     * Constructs a RedisSemaphore with the specified parameters.
+     *
+     * @param support        SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager LockKeyManager for renewing the permit lease
+     * @param key            The semaphore key
+     * @param permits        The total number of permits, which must be the same on all nodes
+     * @param option         Configuration options
+     */
+    public RedisSemaphore(SynchronizeSupport support, LockKeyManager lockKeyManager, String key, int permits,
+                          Option option) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        this.support = support;
+        this.lockKeyManager = lockKeyManager;
+        this.key = key;
+        this.permits = permits;
+        this.clientId = option.getClientId();
+        this.timeToLiveMillis = option.getKeyTimeToLive();
+        this.maxWaitTimeMillis = option.getWaitLimit();
+        this.maxReleaseDelayMillis = option.getMaxReleaseDelay();
+        this.leaseKeys = List.of(KeyNames.permitTimeout(key), KeyNames.permits(key));
+    }
+
+    /**
+     * Acquires a permit, blocking until one is available.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits, blocking until all are available.
+     *
+     * @param permits the number of permits to acquire
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void acquire(int permits) throws InterruptedException {
+        tryAcquireUntil(permits, Long.MAX_VALUE);
+    }
+
+    /**
+     * Acquires a permit only if one is available at the time of invocation.
+     *
+     * @return true if the permit was acquired, false otherwise
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits only if all are available at the time of invocation.
+     *
+     * @param permits the number of permits to acquire
+     * @return true if the permits were acquired, false otherwise
+     */
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        if (support.tryAcquirePermits(key, clientId, this.permits, timeToLiveMillis, List.of(permits)) == 0) {
+            return false;
+        }
+        lock.lock();
+        try {
+            addHeld(permits);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Acquires the given number of permits, waiting up to the given time for all to become available.
+     *
+     * @param permits the number of permits to acquire
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout argument
+     * @return true if the permits were acquired, false if the waiting time elapsed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+        return tryAcquireUntil(permits, System.currentTimeMillis() + unit.toMillis(timeout));
+    }
+
+    private boolean tryAcquireUntil(int permits, long deadline) throws InterruptedException {
+        checkPermits(permits);
+        Waiter waiter;
+        lock.lock();
+        try {
+            waiter = new Waiter(permits, Thread.currentThread());
+            waiters.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        SynchronizeSupport.Cancelable subscription = support.subscribeToKey(key, () -> LockSupport.unpark(waiter.thread));
+        try {
+            while (true) {
+                List<Waiter> batch = startFetch();
+                if (batch != null) {
+                    fetch(batch);
+                }
+                if (waiter.granted) {
+                    return true;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return !cancel(waiter);
+                }
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.min(remaining, maxWaitTimeMillis)));
+                if (Thread.interrupted()) {
+                    if (cancel(waiter)) {
+                        throw new InterruptedException();
+                    }
+                    // the permits were granted meanwhile, keep them and the interrupt status
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            }
+        } catch (RuntimeException e) {
+            if (!cancel(waiter)) {
+                release(permits);
+            }
+            throw e;
+        } finally {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Makes the calling waiter take permits from Redis for the queue, unless another waiter already does.
+     *
+     * @return the waiters to request permits for, or {@code null}
+     */
+    private List<Waiter> startFetch() {
+        lock.lock();
+        try {
+            if (fetching || waiters.isEmpty()) {
+                return null;
+            }
+            fetching = true;
+            return new ArrayList<>(waiters);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fetch(List<Waiter> batch) {
+        List<Integer> requests = new ArrayList<>(batch.size());
+        for (Waiter waiter : batch) {
+            requests.add(waiter.permits);
+        }
+        int granted = 0;
+        int surplus;
+        try {
+            granted = support.tryAcquirePermits(key, clientId, permits, timeToLiveMillis, requests);
+            logger.debug("Took {} permits of {} for {} waiters", granted, key, batch.size());
+        } finally {
+            lock.lock();
+            try {
+                fetching = false;
+                if (granted > 0) {
+                    addHeld(granted);
+                }
+                surplus = grantLocally(granted);
+                // let the next waiter take over fetching for the waiters left in the queue
+                Waiter head = waiters.peek();
+                if (head != null) {
+                    LockSupport.unpark(head.thread);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        returnPermits(surplus);
+    }
+
+    /**
+     * Releases a permit, returning it to the semaphore.
+     */
+    public void release() {
+        release(1);
+    }
+
+    /**
+     * Releases the given number of permits, returning them to the semaphore.
+     *
+     * @param permits the number of permits to release
+     * @throws IllegalStateException if this node does not hold that many acquired permits
+     */
+    public void release(int permits) {
+        checkPermits(permits);
+        int surplus;
+        lock.lock();
+        try {
+            if (held < permits) {
+                throw new IllegalStateException(key + ":" + clientId + " has not acquired " + permits + " permits");
+            }
+            if (System.currentTimeMillis() - lastFetchTime > maxReleaseDelayMillis) {
+                surplus = permits;
+                removeHeld(surplus);
+            } else {
+                surplus = grantLocally(permits);
+            }
+        } finally {
+            lock.unlock();
+        }
+        returnPermits(surplus);
+    }
+
+    /**
+     * Hands permits held by this node but by no local caller to the local waiters in queue order.
+     * Must be called with {@link #lock} held.
+     *
+     * @param available the permits to hand out
+     * @return the permits no waiter could take, which are removed from this node and must be returned to Redis
+     */
+    private int grantLocally(int available) {
+        Waiter head;
+        while ((head = waiters.peek()) != null && head.permits <= available) {
+            waiters.poll();
+            available -= head.permits;
+            head.granted = true;
+            LockSupport.unpark(head.thread);
+        }
+        // holding permits nobody can use yet would starve other nodes, so they go back to Redis
+        removeHeld(available);
+        return available;
+    }
+
+    /**
+     * Removes a waiter from the queue.
+     *
+     * @return {@code false} if the waiter had been granted its permits meanwhile
+     */
+    private boolean cancel(Waiter waiter) {
+        lock.lock();
+        try {
+            if (waiter.granted) {
+                return false;
+            }
+            waiters.remove(waiter);
+            // the waiters behind may fit now
+            Waiter head = waiters.peek();
+            if (head != null) {
+                LockSupport.unpark(head.thread);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addHeld(int permits) {
+        if (held == 0) {
+            for (String leaseKey : leaseKeys) {
+                lockKeyManager.addKey(leaseKey, key);
+            }
+        }
+        held += permits;
+        lastFetchTime = System.currentTimeMillis();
+    }
+
+    private void removeHeld(int permits) {
+        if (permits == 0) {
+            return;
+        }
+        held -= permits;
+        if (held == 0) {
+            for (String leaseKey : leaseKeys) {
+                lockKeyManager.removeKey(leaseKey);
+            }
+        }
+    }
+
+    private void returnPermits(int permits) {
+        if (permits > 0 && !support.releasePermits(key, clientId, permits)) {
+            logger.warn("{}:{} no longer held {} permits upon release", key, clientId, permits);
+        }
+    }
+
+    private void checkPermits(int permits) {
+        if (permits <= 0 || permits > this.permits) {
+            throw new IllegalArgumentException("permits must be between 1 and " + this.permits + ": " + permits);
+        }
+    }
+
+    private static final class Waiter {
+        private final int permits;
+        private final Thread thread;
+        private volatile boolean granted;
+
+        private Waiter(int permits, Thread thread) {
+            this.permits = permits;
+            this.thread = thread;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.nextentity.redis.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the releases of lock keys from concurrent unlocks and flushes them to Redis together,
+ * one batch at a time.
+ * <p>
+ * The first release of a batch leads it: it waits for {@code window} nanoseconds, if any, then for the batch
+ * flushed before, and flushes the releases that joined meanwhile in a single round trip. Under a low unlock rate
+ * a release is thus flushed right away, and under a high rate the releases arriving during one round trip share
+ * the next one. A release waits at most for the window, one flush ahead of it and its own, and a batch is
+ * closed once it holds {@code maxBatchSize} releases.
+ */
+final class ReleaseBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ReleaseBatcher.class);
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Flusher flusher;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // guarded by this
+    private Batch pending;
+
+    /**
+     * @param windowNanos  Time the first release of a batch waits for others to join
+     * @param maxBatchSize Maximum number of releases per batch
+     * @param flusher      Releases a batch of keys in Redis
+     */
+    ReleaseBatcher(long windowNanos, int maxBatchSize, Flusher flusher) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Deletes a key if its value equals {@code expectedValue}, notifying the waiters of its release.
+     *
+     * @return {@code true} if the key was deleted
+     */
+    boolean release(String key, String expectedValue) {
+        Batch batch;
+        int index;
+        boolean leader;
+        synchronized (this) {
+            leader = pending == null;
+            if (leader) {
+                pending = new Batch();
+            }
+            batch = pending;
+            index = batch.keys.size();
+            batch.keys.add(key);
+            batch.values.add(expectedValue);
+            if (batch.keys.size() == maxBatchSize) {
+                pending = null;
+            }
+        }
+        if (leader) {
+            flush(batch);
+        }
+        return batch.released.join()[index];
+    }
+
+    private void flush(Batch batch) {
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos);
+        }
+        flushLock.lock();
+        try {
+            synchronized (this) {
+                if (pending == batch) {
+                    pending = null;
+                }
+            }
+            batch.released.complete(flusher.releaseAll(batch.keys, batch.values));
+        } catch (Exception e) {
+            logger.warn("Failed to release keys: {}", batch.keys, e);
+            batch.released.complete(new boolean[batch.keys.size()]);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Releases a batch of keys in Redis.
+     */
+    @FunctionalInterface
+    interface Flusher {
+        /**
+         * @param keys           Keys
+         * @param expectedValues The value each key must have to be deleted
+         * @return For each key, {@code true} if it was deleted
+         */
+        boolean[] releaseAll(List<String> keys, List<String> expectedValues);
+    }
+
+    private static final class Batch {
+        // guarded by the batcher until the batch is flushed
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private final CompletableFuture<boolean[]> released = new CompletableFuture<>();
+    }
+}
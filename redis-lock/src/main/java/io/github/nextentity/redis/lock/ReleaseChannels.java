@@ -0,0 +1,70 @@
+package io.github.nextentity.redis.lock;
+
+import lombok.Getter;
+
+/**
+ * Maps lock keys onto the pub/sub channels their release notifications are published on.
+ * <p>
+ * With a single partition every key uses {@code channelId}. Otherwise keys are hashed onto
+ * {@code channelId:0} .. {@code channelId:(partitions - 1)}, so a node only receives releases
+ * for the partitions it is waiting on. All nodes sharing locks must use the same partition count.
+ * <p>
+ * Each client additionally has a direct channel, {@code channelId@clientId}, used to hand a fair lock
+ * to exactly one waiting node.
+ */
+@Getter
+public class ReleaseChannels {
+
+    private final String channelId;
+    private final int partitions;
+
+    /**
+     * Constructs ReleaseChannels with the specified parameters.
+     *
+     * @param channelId  Base channel ID
+     * @param partitions Number of channels keys are hashed onto
+     */
+    public ReleaseChannels(String channelId, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        this.channelId = channelId;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Returns the channel release notifications of {@code key} are published on.
+     *
+     * @param key Lock key
+     * @return The channel name
+     */
+    public String channelOf(String key) {
+        if (!isPartitioned()) {
+            return channelId;
+        }
+        return channelId + ":" + Math.floorMod(key.hashCode(), partitions);
+    }
+
+    /**
+     * Returns the prefix of direct channels, to which a client ID is appended.
+     *
+     * @return The direct channel prefix
+     */
+    public String getDirectChannelPrefix() {
+        return channelId + "@";
+    }
+
+    /**
+     * Returns the channel on which only {@code clientId} is notified.
+     *
+     * @param clientId Client ID
+     * @return The direct channel name
+     */
+    public String directChannelOf(String clientId) {
+        return getDirectChannelPrefix() + clientId;
+    }
+
+    public boolean isPartitioned() {
+        return partitions > 1;
+    }
+}
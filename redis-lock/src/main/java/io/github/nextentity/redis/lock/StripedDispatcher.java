@@ -0,0 +1,124 @@
+package io.github.nextentity.redis.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hands the keys of received release messages over from the thread reading them to a set of stripes,
+ * so that slow callbacks or a burst of releases do not hold up reading further messages.
+ * <p>
+ * Keys hash onto a fixed stripe, which dispatches them one at a time on the executor, so the releases of a key
+ * are dispatched in order. A key that is queued already is not queued again: its waiters retry once for both
+ * releases. When {@code capacity} keys are queued, further keys are dispatched on the calling thread instead,
+ * slowing down reading rather than dropping wakeups or growing without bound.
+ */
+final class StripedDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(StripedDispatcher.class);
+
+    private final Stripe[] stripes;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<String> handler;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * @param stripes  Number of stripes, at least 1
+     * @param capacity Maximum number of keys queued
+     * @param executor Executor running the stripes
+     * @param handler  Dispatches a key
+     */
+    StripedDispatcher(int stripes, int capacity, Executor executor, Consumer<String> handler) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.capacity = capacity;
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    /**
+     * Queues a key to be dispatched.
+     *
+     * @param key The released key
+     * @return The number of keys queued afterward
+     */
+    int offer(String key) {
+        if (!queued.add(key)) {
+            return depth.get();
+        }
+        if (depth.incrementAndGet() > capacity) {
+            queued.remove(key);
+            depth.decrementAndGet();
+            handle(key);
+            return capacity;
+        }
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        stripe.keys.add(key);
+        stripe.schedule();
+        return depth.get();
+    }
+
+    /**
+     * Returns the number of keys queued and not dispatched yet.
+     */
+    int depth() {
+        return depth.get();
+    }
+
+    private void handle(String key) {
+        try {
+            handler.accept(key);
+        } catch (Exception e) {
+            logger.error("Error dispatching {}", key, e);
+        }
+    }
+
+    /**
+     * Keys dispatched one at a time, by at most one task on the executor.
+     */
+    private final class Stripe implements Runnable {
+        private final Queue<String> keys = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    logger.warn("Failed to schedule dispatch, dispatching on the calling thread", e);
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                String key;
+                while ((key = keys.poll()) != null) {
+                    // a release received from now on is queued again
+                    queued.remove(key);
+                    depth.decrementAndGet();
+                    handle(key);
+                }
+                scheduled.set(false);
+                // a key queued after the queue was found empty but before the flag was cleared
+            } while (!keys.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.nextentity.redis.lock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event of the dispatch of a release message to the callbacks waiting for it.
+ */
+@Name("io.github.nextentity.redis.lock.SubscriberDispatch")
+@Label("Subscriber Dispatch")
+@Category("Redis Lock")
+@Description("Dispatch of a release message to the waiting callbacks")
+@StackTrace(false)
+@Threshold("1 ms")
+final class SubscriberDispatchEvent extends jdk.jfr.Event {
+
+    @Label("Key")
+    String key;
+
+    @Label("Callbacks")
+    int callbacks;
+
+    /**
+     * Ends the event and commits it if it is enabled and exceeds its threshold.
+     */
+    void complete(String key, int callbacks) {
+        end();
+        if (shouldCommit()) {
+            this.key = key;
+            this.callbacks = callbacks;
+            commit();
+        }
+    }
+}
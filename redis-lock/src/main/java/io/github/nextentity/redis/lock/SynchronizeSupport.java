@@ -1,6 +1,8 @@
 package io.github.nextentity.redis.lock;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Operations required to implement distributed locks.
@@ -15,6 +17,26 @@ public interface SynchronizeSupport extends AutoCloseable {
      */
     void batchSetTimeToLive(Collection<String> keys, long milliseconds);
 
+    /**
+     * Set the time to live (TTL) of each of {@code keys} still owned by {@code value}, in a single round trip.
+     * A string key is owned if its value equals {@code value}, a set if {@code value} is a member,
+     * a hash if {@code value} is a field, and a sorted set if {@code value} is a member whose score,
+     * the expiry of its lease, has not passed. That score is extended by {@code ttl} as well.
+     * <p>
+     * The default implementation renews all keys with {@link #batchSetTimeToLive(Collection, long)}
+     * and reports none of them as lost.
+     *
+     * @param keys  Keys
+     * @param value Value identifying the client
+     * @param ttl   Time to live (milliseconds)
+     * @return The keys that are no longer owned by {@code value} and were not renewed
+     * @throws RuntimeException if it is not known which keys are owned, for example because Redis is unreachable
+     */
+    default List<String> renewIfOwned(Collection<String> keys, String value, long ttl) {
+        batchSetTimeToLive(keys, ttl);
+        return Collections.emptyList();
+    }
+
     /**
      * Delete a key if the current value equals {@code expectedValue}.
      *
@@ -24,6 +46,26 @@ public interface SynchronizeSupport extends AutoCloseable {
      */
     boolean deleteIfValueEquals(String key, String expectedValue);
 
+    /**
+     * Delete a key if the current value equals {@code expectedValue}, and notify the waiters of its release
+     * through {@link #publishKey(String)} unless {@link #isDeletionNotified() deletions are notified} anyway.
+     * <p>
+     * Implementations may do both in a single round trip, and batch the releases of concurrent callers.
+     *
+     * @param key           Key
+     * @param expectedValue The expected value
+     * @return {@code true} if the key was deleted
+     */
+    default boolean releaseIfValueEquals(String key, String expectedValue) {
+        if (!deleteIfValueEquals(key, expectedValue)) {
+            return false;
+        }
+        if (!isDeletionNotified()) {
+            publishKey(key);
+        }
+        return true;
+    }
+
     /**
      * Set {@code value} and time to live (TTL) {@code ttl} (milliseconds) if {@code key} does not exist,
      * or get the remaining TTL if the {@code key} already exists.
@@ -36,6 +78,210 @@ public interface SynchronizeSupport extends AutoCloseable {
      */
     Long setIfAbsentOrGetRemainingTTL(String key, String value, long ttl);
 
+    /**
+     * Set {@code value} with time to live (TTL) {@code ttl} (milliseconds) on all {@code keys} if none of them exists,
+     * or get the longest remaining TTL among the existing ones.
+     *
+     * @param keys  Keys
+     * @param value Value
+     * @param ttl   Time to live (milliseconds)
+     * @return {@code null} if all keys were set, otherwise the longest remaining time to live (milliseconds)
+     * @throws UnsupportedOperationException if the implementation does not support multi-key locks
+     */
+    default Long setAllIfAbsentOrGetRemainingTTL(List<String> keys, String value, long ttl) {
+        throw Feature.MULTI_KEY_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Delete each of {@code keys} whose value equals {@code expectedValue} and publish it,
+     * see {@link #publishKey(String)}.
+     *
+     * @param keys          Keys
+     * @param expectedValue The expected value
+     * @return {@code true} if the value of all keys was {@code expectedValue}
+     * @throws UnsupportedOperationException if the implementation does not support multi-key locks
+     */
+    default boolean deleteAllIfValueEquals(List<String> keys, String expectedValue) {
+        throw Feature.MULTI_KEY_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Take a fair lock if it was handed off to {@code value}, or if it is free and no other client is queued ahead;
+     * otherwise join (or stay in) its FIFO waiter queue for {@code waiterLease} milliseconds.
+     *
+     * @param key         Key
+     * @param value       Value identifying the client
+     * @param ttl         Time to live (milliseconds)
+     * @param waiterLease How long the queue entry stays valid without being refreshed (milliseconds),
+     *                    or 0 to fail without joining the queue
+     * @return {@code null} if the lock is owned by {@code value}, otherwise the time (milliseconds) worth waiting
+     * @throws UnsupportedOperationException if the implementation does not support fair locks
+     */
+    default Long tryAcquireFairLock(String key, String value, long ttl, long waiterLease) {
+        throw Feature.FAIR_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Release a fair lock owned by {@code value} and hand it to the first live waiter,
+     * notifying only that client through {@link #subscribeToKey(String, Runnable)}.
+     *
+     * @param key        Key
+     * @param value      Value identifying the client
+     * @param claimLease Time (milliseconds) the next owner has to claim the lock
+     * @return {@code true} if the lock was owned by {@code value}
+     * @throws UnsupportedOperationException if the implementation does not support fair locks
+     */
+    default boolean releaseFairLock(String key, String value, long claimLease) {
+        throw Feature.FAIR_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Leave the waiter queue of a fair lock.
+     *
+     * @param key   Key
+     * @param value Value identifying the client
+     * @param ttl   Time to live (milliseconds) applied if the lock was handed off to {@code value} meanwhile
+     * @return {@code true} if the lock was handed off to {@code value} and is now owned by it
+     * @throws UnsupportedOperationException if the implementation does not support fair locks
+     */
+    default boolean cancelFairLockWait(String key, String value, long ttl) {
+        throw Feature.FAIR_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Take a read share of the read-write lock {@code key} for {@code value},
+     * unless another client holds its write lock or is waiting for it.
+     *
+     * @param key   Key
+     * @param value Value identifying the client
+     * @param ttl   Time to live (milliseconds) of the read share
+     * @return {@code null} if the read share was taken, otherwise the time (milliseconds) worth waiting
+     * @throws UnsupportedOperationException if the implementation does not support read-write locks
+     */
+    default Long tryAcquireReadLock(String key, String value, long ttl) {
+        throw Feature.READ_WRITE_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Release the read share of {@code value}, publishing {@code key} once no readers are left.
+     *
+     * @param key   Key
+     * @param value Value identifying the client
+     * @return {@code true} if the read share was still held by {@code value}
+     * @throws UnsupportedOperationException if the implementation does not support read-write locks
+     */
+    default boolean releaseReadLock(String key, String value) {
+        throw Feature.READ_WRITE_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Take the write lock of the read-write lock {@code key} for {@code value} once no other client holds
+     * a read share; while blocked, register a write intent for {@code intentLease} milliseconds
+     * that holds back new readers. The write lock is released with {@link #deleteIfValueEquals(String, String)}.
+     *
+     * @param key         Key
+     * @param value       Value identifying the client
+     * @param ttl         Time to live (milliseconds)
+     * @param intentLease Lease of the write intent (milliseconds), or 0 to not register one
+     * @return {@code null} if the write lock was taken, otherwise the time (milliseconds) worth waiting
+     * @throws UnsupportedOperationException if the implementation does not support read-write locks
+     */
+    default Long tryAcquireWriteLock(String key, String value, long ttl, long intentLease) {
+        throw Feature.READ_WRITE_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Withdraw the write intent registered by {@code value}, publishing {@code key} so that readers retry.
+     *
+     * @param key   Key
+     * @param value Value identifying the client
+     * @throws UnsupportedOperationException if the implementation does not support read-write locks
+     */
+    default void cancelWriteIntent(String key, String value) {
+        throw Feature.READ_WRITE_LOCKS.unsupportedBy(this);
+    }
+
+    /**
+     * Take permits of the semaphore {@code key} for {@code value}, granting the {@code requests} in order
+     * until one no longer fits in the {@code permits} not held by other clients.
+     * Permits held by clients whose lease expired are reclaimed.
+     *
+     * @param key      Key
+     * @param value    Value identifying the client
+     * @param permits  Total number of permits of the semaphore
+     * @param ttl      Time to live (milliseconds) of the client's permits
+     * @param requests Numbers of permits requested
+     * @return The number of permits taken, the sum of the granted requests
+     * @throws UnsupportedOperationException if the implementation does not support semaphores
+     */
+    default int tryAcquirePermits(String key, String value, int permits, long ttl, List<Integer> requests) {
+        throw Feature.SEMAPHORES.unsupportedBy(this);
+    }
+
+    /**
+     * Return {@code permits} permits of the semaphore {@code key} held by {@code value} and publish {@code key}.
+     *
+     * @param key     Key
+     * @param value   Value identifying the client
+     * @param permits Number of permits to return
+     * @return {@code true} if {@code value} still held that many permits
+     * @throws UnsupportedOperationException if the implementation does not support semaphores
+     */
+    default boolean releasePermits(String key, String value, int permits) {
+        throw Feature.SEMAPHORES.unsupportedBy(this);
+    }
+
+    /**
+     * Append {@code waiter} to the queue of the condition {@code key}.
+     * The waiter key holds {@code value} and exists for {@code ttl} milliseconds or until the waiter is signalled,
+     * which publishes {@code waiter} to that client only, so that it can be received through
+     * {@link #subscribeToKey(String, Runnable)}.
+     *
+     * @param key    Condition key
+     * @param waiter Waiter key
+     * @param value  Value identifying the client
+     * @param ttl    Time to live (milliseconds) of the waiter key
+     * @throws UnsupportedOperationException if the implementation does not support conditions
+     */
+    default void addConditionWaiter(String key, String waiter, String value, long ttl) {
+        throw Feature.CONDITIONS.unsupportedBy(this);
+    }
+
+    /**
+     * Signal waiters of the condition {@code key} in queue order.
+     *
+     * @param key Condition key
+     * @param all {@code true} to signal all waiters, otherwise only the first one
+     * @return The number of waiters signalled
+     * @throws UnsupportedOperationException if the implementation does not support conditions
+     */
+    default int signalCondition(String key, boolean all) {
+        throw Feature.CONDITIONS.unsupportedBy(this);
+    }
+
+    /**
+     * Remove {@code waiter} from the queue of the condition {@code key}.
+     *
+     * @param key    Condition key
+     * @param waiter Waiter key
+     * @return {@code true} if the waiter was still queued, {@code false} if it had been signalled
+     * @throws UnsupportedOperationException if the implementation does not support conditions
+     */
+    default boolean removeConditionWaiter(String key, String waiter) {
+        throw Feature.CONDITIONS.unsupportedBy(this);
+    }
+
+    /**
+     * Check if {@code waiter} is still waiting, that is, it was neither signalled nor expired.
+     *
+     * @param waiter Waiter key
+     * @return {@code true} if the waiter key still exists
+     * @throws UnsupportedOperationException if the implementation does not support conditions
+     */
+    default boolean isConditionWaiting(String waiter) {
+        throw Feature.CONDITIONS.unsupportedBy(this);
+    }
+
     /**
      * Publish a key so that all clients can subscribe to it.
      *
@@ -54,6 +300,58 @@ public interface SynchronizeSupport extends AutoCloseable {
      */
     Cancelable subscribeToKey(String key, Runnable callback);
 
+    /**
+     * Whether the subscribers of a key are notified when the key is deleted or expires, without it being published.
+     * Callers can then skip {@link #publishKey(String)} after deleting a key.
+     *
+     * @return {@code true} if the deletion of a key notifies its subscribers
+     */
+    default boolean isDeletionNotified() {
+        return false;
+    }
+
+    /**
+     * Whether the operations of {@code feature} are implemented. {@link LockFactory} checks it when a lock of
+     * that kind is requested, so that an unsupported kind fails there rather than on its first use.
+     * <p>
+     * The default implementation returns {@code true}. Implementations leaving the operations of a feature
+     * to their defaults, which throw {@link UnsupportedOperationException}, must override it.
+     *
+     * @param feature The feature
+     * @return {@code true} if the operations of {@code feature} are implemented
+     */
+    default boolean isSupported(Feature feature) {
+        return true;
+    }
+
+    /**
+     * Kinds of locks that need operations beyond those of a plain lock.
+     */
+    enum Feature {
+        MULTI_KEY_LOCKS("Multi-key locks"),
+        FAIR_LOCKS("Fair locks"),
+        READ_WRITE_LOCKS("Read-write locks"),
+        SEMAPHORES("Semaphores"),
+        CONDITIONS("Conditions");
+
+        private final String description;
+
+        Feature(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Returns the exception thrown when {@code support} does not implement this feature.
+         *
+         * @param support The support
+         * @return The exception
+         */
+        public UnsupportedOperationException unsupportedBy(SynchronizeSupport support) {
+            return new UnsupportedOperationException(description + " are not supported by "
+                                                     + support.getClass().getSimpleName());
+        }
+    }
+
     interface Cancelable {
         void cancel();
     }
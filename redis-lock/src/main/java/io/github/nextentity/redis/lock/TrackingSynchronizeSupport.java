@@ -0,0 +1,297 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SynchronizeSupport} backed by Lettuce that learns about released locks from Redis client-side tracking
+ * instead of pub/sub, so that unlocking a plain lock takes a single round trip.
+ * <p>
+ * Subscribing to a key reads it on a dedicated RESP3 connection with {@code CLIENT TRACKING} enabled. Redis then
+ * pushes an invalidation to that connection when the key is changed, deleted or expires, so only nodes waiting
+ * for a key hear about it, and waiters also wake up when the lock of a crashed holder expires. Since tracking
+ * fires once per read, the key is read again after each invalidation while it has subscribers, and its
+ * subscribers are notified once more if it turns out to be gone by then. Changes other than releases, such as
+ * renewals, wake waiters spuriously; they retry and wait again.
+ * <p>
+ * Releases of structures other than the lock key itself, such as read-write locks, semaphores and conditions,
+ * and the signals of lease caching, are still published by pub/sub, to which subscribers also listen.
+ * Requires Redis 6 or later and a RESP3 connection, which Lettuce negotiates by default.
+ */
+public class TrackingSynchronizeSupport implements SynchronizeSupport {
+    private static final Logger logger = LoggerFactory.getLogger(TrackingSynchronizeSupport.class);
+
+    private static final String INVALIDATE = "invalidate";
+
+    private final LettuceSynchronizeSupport delegate;
+    private final StatefulRedisConnection<String, String> tracking;
+    private final Map<String, TrackedKey> trackedKeys = new ConcurrentHashMap<>();
+    private final LockMetrics metrics;
+
+    /**
+     * Constructs a TrackingSynchronizeSupport opening its connections from the given client.
+     *
+     * @param client The Lettuce RedisClient
+     * @param option Configuration options
+     */
+    public TrackingSynchronizeSupport(RedisClient client, Option option) {
+        this.delegate = new LettuceSynchronizeSupport(client, option, false);
+        this.metrics = option.getMetrics();
+        this.tracking = client.connect();
+        tracking.addListener(this::onPushMessage);
+        tracking.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                onReconnected();
+            }
+        });
+        tracking.sync().clientTracking(TrackingArgs.Builder.enabled());
+    }
+
+    @Override
+    public boolean isDeletionNotified() {
+        return true;
+    }
+
+    @Override
+    public Cancelable subscribeToKey(String key, Runnable callback) {
+        Cancelable published = delegate.subscribeToKey(key, callback);
+        TrackedKey trackedKey = trackedKeys.compute(key, (k, tracked) -> {
+            if (tracked == null) {
+                tracked = new TrackedKey(track(k));
+            }
+            tracked.callbacks.add(callback);
+            return tracked;
+        });
+        try {
+            trackedKey.tracked.join();
+        } catch (CompletionException e) {
+            logger.warn("Failed to track {}, relying on published releases", key, e);
+        }
+        return () -> {
+            published.cancel();
+            trackedKeys.computeIfPresent(key, (k, tracked) -> {
+                tracked.callbacks.remove(callback);
+                return tracked.callbacks.isEmpty() ? null : tracked;
+            });
+        };
+    }
+
+    /**
+     * Reads a key on the tracking connection, so that Redis reports its next change.
+     *
+     * @return The number of keys found, 0 or 1
+     */
+    private CompletableFuture<Long> track(String key) {
+        return tracking.async().exists(key).toCompletableFuture();
+    }
+
+    /**
+     * Tracks a key again after it was invalidated, notifying its subscribers if it is gone by then.
+     */
+    private void retrack(String key) {
+        if (!trackedKeys.containsKey(key)) {
+            return;
+        }
+        track(key).whenComplete((exists, e) -> {
+            if (e != null) {
+                logger.warn("Failed to track {} again", key, e);
+            } else if (exists == 0) {
+                dispatch(key);
+            }
+        });
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        // a null list of keys means the tracking table or the database was flushed
+        Collection<?> keys = content.size() > 1 && content.get(1) instanceof List<?> list ? list : trackedKeys.keySet();
+        for (Object key : List.copyOf(keys)) {
+            dispatch((String) key);
+            retrack((String) key);
+        }
+    }
+
+    /**
+     * Enables tracking again once the connection was re-established, since Redis forgot about it.
+     */
+    private void onReconnected() {
+        logger.debug("Tracking connection re-established, tracking {} keys again", trackedKeys.size());
+        tracking.async().clientTracking(TrackingArgs.Builder.enabled()).whenComplete((r, e) -> {
+            if (e != null) {
+                logger.warn("Failed to enable tracking", e);
+                return;
+            }
+            // releases may have been missed while disconnected
+            for (String key : trackedKeys.keySet()) {
+                dispatch(key);
+                retrack(key);
+            }
+        });
+    }
+
+    private void dispatch(String key) {
+        TrackedKey trackedKey = trackedKeys.get(key);
+        if (trackedKey == null) {
+            return;
+        }
+        metrics.recordMessage();
+        SubscriberDispatchEvent event = new SubscriberDispatchEvent();
+        event.begin();
+        int dispatched = 0;
+        for (Runnable callback : trackedKey.callbacks) {
+            dispatched++;
+            try {
+                callback.run();
+            } catch (Exception e) {
+                logger.error("Error executing callback {}", callback, e);
+            }
+        }
+        event.complete(key, dispatched);
+    }
+
+    @Override
+    public void publishKey(String key) {
+        delegate.publishKey(key);
+    }
+
+    @Override
+    public void batchSetTimeToLive(Collection<String> keys, long milliseconds) {
+        delegate.batchSetTimeToLive(keys, milliseconds);
+    }
+
+    @Override
+    public List<String> renewIfOwned(Collection<String> keys, String value, long ttl) {
+        return delegate.renewIfOwned(keys, value, ttl);
+    }
+
+    @Override
+    public boolean deleteIfValueEquals(String key, String expectedValue) {
+        return delegate.deleteIfValueEquals(key, expectedValue);
+    }
+
+    @Override
+    public boolean releaseIfValueEquals(String key, String expectedValue) {
+        return delegate.releaseIfValueEquals(key, expectedValue);
+    }
+
+    @Override
+    public Long setIfAbsentOrGetRemainingTTL(String key, String value, long ttl) {
+        return delegate.setIfAbsentOrGetRemainingTTL(key, value, ttl);
+    }
+
+    @Override
+    public Long setAllIfAbsentOrGetRemainingTTL(List<String> keys, String value, long ttl) {
+        return delegate.setAllIfAbsentOrGetRemainingTTL(keys, value, ttl);
+    }
+
+    @Override
+    public boolean deleteAllIfValueEquals(List<String> keys, String expectedValue) {
+        return delegate.deleteAllIfValueEquals(keys, expectedValue);
+    }
+
+    @Override
+    public Long tryAcquireFairLock(String key, String value, long ttl, long waiterLease) {
+        return delegate.tryAcquireFairLock(key, value, ttl, waiterLease);
+    }
+
+    @Override
+    public boolean releaseFairLock(String key, String value, long claimLease) {
+        return delegate.releaseFairLock(key, value, claimLease);
+    }
+
+    @Override
+    public boolean cancelFairLockWait(String key, String value, long ttl) {
+        return delegate.cancelFairLockWait(key, value, ttl);
+    }
+
+    @Override
+    public Long tryAcquireReadLock(String key, String value, long ttl) {
+        return delegate.tryAcquireReadLock(key, value, ttl);
+    }
+
+    @Override
+    public boolean releaseReadLock(String key, String value) {
+        return delegate.releaseReadLock(key, value);
+    }
+
+    @Override
+    public Long tryAcquireWriteLock(String key, String value, long ttl, long intentLease) {
+        return delegate.tryAcquireWriteLock(key, value, ttl, intentLease);
+    }
+
+    @Override
+    public void cancelWriteIntent(String key, String value) {
+        delegate.cancelWriteIntent(key, value);
+    }
+
+    @Override
+    public int tryAcquirePermits(String key, String value, int permits, long ttl, List<Integer> requests) {
+        return delegate.tryAcquirePermits(key, value, permits, ttl, requests);
+    }
+
+    @Override
+    public boolean releasePermits(String key, String value, int permits) {
+        return delegate.releasePermits(key, value, permits);
+    }
+
+    @Override
+    public void addConditionWaiter(String key, String waiter, String value, long ttl) {
+        delegate.addConditionWaiter(key, waiter, value, ttl);
+    }
+
+    @Override
+    public int signalCondition(String key, boolean all) {
+        return delegate.signalCondition(key, all);
+    }
+
+    @Override
+    public boolean removeConditionWaiter(String key, String waiter) {
+        return delegate.removeConditionWaiter(key, waiter);
+    }
+
+    @Override
+    public boolean isConditionWaiting(String waiter) {
+        return delegate.isConditionWaiting(waiter);
+    }
+
+    @Override
+    public void close() {
+        try (LettuceSynchronizeSupport support = this.delegate) {
+            logger.debug("Closing support: {}", support);
+        } finally {
+            tracking.close();
+        }
+    }
+
+    /**
+     * The subscribers of a tracked key.
+     */
+    private static final class TrackedKey {
+        private final CompletableFuture<Long> tracked;
+        private final Set<Runnable> callbacks = ConcurrentHashMap.newKeySet();
+
+        private TrackedKey(CompletableFuture<Long> tracked) {
+            this.tracked = tracked;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides how a thread waits between failed attempts to acquire a distributed lock,
+ * set through {@link Option#setWaitStrategy(WaitStrategy)} or per key through
+ * {@link Option#setWaitStrategySelector(java.util.function.Function)}.
+ * <p>
+ * A published release unparks the waiting thread, so a strategy that parks with {@link LockSupport}
+ * returns as soon as the lock may be free. A release signalled while the thread was not parked
+ * makes its next park return immediately.
+ * <p>
+ * Asynchronous locks do not block a thread while waiting and are not affected by the strategy.
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Waits before the next attempt to acquire the lock.
+     *
+     * @param retries      Number of failed attempts so far, at least 1
+     * @param maxWaitNanos Maximum time in nanoseconds worth waiting: until the lock expires, the caller's deadline
+     *                     or {@link Option#getWaitLimit()}, whichever comes first
+     */
+    void await(int retries, long maxWaitNanos);
+
+    /**
+     * Parks until a release is signalled or the maximum wait elapses, the default.
+     * Lock handovers between nodes take a pub/sub round trip.
+     *
+     * @return The strategy
+     */
+    static WaitStrategy parkUntilSignal() {
+        return (retries, maxWaitNanos) -> LockSupport.parkNanos(maxWaitNanos);
+    }
+
+    /**
+     * Retries right away for the first {@code spinRetries} attempts, then parks until signalled.
+     * <p>
+     * Suits locks held for much less than a pub/sub round trip, at the cost of extra commands to Redis
+     * while the lock is held.
+     *
+     * @param spinRetries Number of failed attempts retried without parking
+     * @return The strategy
+     */
+    static WaitStrategy spinThenPark(int spinRetries) {
+        if (spinRetries < 0) {
+            throw new IllegalArgumentException("spinRetries must not be negative");
+        }
+        return (retries, maxWaitNanos) -> {
+            if (retries <= spinRetries) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(maxWaitNanos);
+            }
+        };
+    }
+
+    /**
+     * Waits an exponentially growing, randomized time, ignoring release signals.
+     * <p>
+     * The wait after {@code n} failed attempts is drawn from the upper half of
+     * {@code min(maxMillis, initialMillis * 2^(n-1))}. Since waiters do not all wake up on the same release,
+     * contending nodes spread their retries on hot keys instead of retrying in lockstep.
+     *
+     * @param initialMillis Upper bound of the first wait in milliseconds
+     * @param maxMillis     Maximum upper bound of a wait in milliseconds
+     * @return The strategy
+     */
+    static WaitStrategy exponentialBackoff(long initialMillis, long maxMillis) {
+        if (initialMillis <= 0 || maxMillis < initialMillis) {
+            throw new IllegalArgumentException("Expected 0 < initialMillis <= maxMillis");
+        }
+        long initialNanos = TimeUnit.MILLISECONDS.toNanos(initialMillis);
+        long maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        return (retries, maxWaitNanos) -> {
+            int shift = Math.min(retries - 1, Long.numberOfLeadingZeros(initialNanos) - 1);
+            long bound = Math.min(maxNanos, initialNanos << shift);
+            long wait = Math.min(maxWaitNanos, bound / 2 + ThreadLocalRandom.current().nextLong(bound / 2 + 1));
+            long deadline = System.nanoTime() + wait;
+            long remaining = wait;
+            // an interrupt makes park return immediately, so stop waiting rather than spin
+            while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.nextentity.redis.lock;
+
+import java.util.List;
+
+/**
+ * Synchronizer for the write lock of a read-write lock.
+ * <p>
+ * While blocked by readers, the writer registers a write intent leased for {@link Option#getWaiterLease()}
+ * that holds back new readers, so a steady stream of readers cannot starve it.
+ */
+public class WriteLockSynchronizer extends LockSynchronizer {
+
+    private final long intentLeaseMillis;
+
+    /**
+     * Constructs a WriteLockSynchronizer with the specified parameters.
+     *
+     * @param support        SynchronizeSupport for managing Redis operations
+     * @param lockKeyManager LockKeyManager for managing lock keys
+     * @param key            The lock key
+     * @param option         Configuration options
+     */
+    public WriteLockSynchronizer(SynchronizeSupport support, LockKeyManager lockKeyManager, String key, Option option) {
+        // refresh the write intent well before its lease runs out
+        super(support, lockKeyManager, key, option,
+                Math.min(option.getWaitLimit(), option.getWaiterLease() / 2), List.of(key));
+        this.intentLeaseMillis = option.getWaiterLease();
+    }
+
+    @Override
+    protected Long acquireOrGetRemainingTTL(boolean waiting) {
+        return support.tryAcquireWriteLock(key, clientId, timeToLiveMillis, waiting ? intentLeaseMillis : 0);
+    }
+
+    @Override
+    protected boolean abandonAcquire() {
+        support.cancelWriteIntent(key, clientId);
+        return false;
+    }
+}
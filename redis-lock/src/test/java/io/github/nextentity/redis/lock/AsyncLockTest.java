@@ -0,0 +1,101 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLockTest {
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(RedisConfig.newOption(), jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    @Test
+    void testReleaseCompletesWaitingAcquisition() throws Exception {
+        AsyncLock holder = first.getAsyncLock(key);
+        AsyncLock waiter = second.getAsyncLock(key);
+        holder.lockAsync().get(1, TimeUnit.SECONDS);
+        assertFalse(waiter.tryLockAsync(100, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> pending = waiter.lockAsync();
+        Thread.sleep(100);
+        assertFalse(pending.isDone());
+        long start = System.currentTimeMillis();
+        holder.unlockAsync().get(1, TimeUnit.SECONDS);
+        pending.get(1, TimeUnit.SECONDS);
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(1));
+        waiter.unlockAsync().get(1, TimeUnit.SECONDS);
+        assertFalse(jedis.exists(key));
+    }
+
+    @Test
+    void testPendingAcquisitionsDoNotHoldThreads() throws Exception {
+        AsyncLock holder = first.getAsyncLock(key);
+        AsyncLock waiter = second.getAsyncLock(key);
+        holder.lockAsync().get(1, TimeUnit.SECONDS);
+        int threads = Thread.activeCount();
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pending.add(waiter.lockAsync().thenCompose(ignored -> {
+                completed.incrementAndGet();
+                return waiter.unlockAsync();
+            }));
+        }
+        Thread.sleep(200);
+        assertEquals(0, completed.get());
+        assertTrue(Thread.activeCount() - threads < 10);
+
+        holder.unlockAsync().get(1, TimeUnit.SECONDS);
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertEquals(1000, completed.get());
+        assertFalse(jedis.exists(key));
+    }
+
+    @Test
+    void testUnlockWithoutLockFails() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> first.getAsyncLock(key).unlockAsync().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalMonitorStateException.class, e.getCause());
+    }
+
+    @Test
+    void testCancelledAcquisitionIsWithdrawn() throws Exception {
+        AsyncLock holder = first.getAsyncLock(key);
+        AsyncLock waiter = second.getAsyncLock(key);
+        holder.lockAsync().get(1, TimeUnit.SECONDS);
+        CompletableFuture<Void> pending = waiter.lockAsync();
+        pending.cancel(false);
+        holder.unlockAsync().get(1, TimeUnit.SECONDS);
+        // the cancelled acquisition must not keep the lock
+        assertTrue(waiter.tryLockAsync(1, TimeUnit.SECONDS).get(2, TimeUnit.SECONDS));
+        waiter.unlockAsync().get(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.nextentity.redis.lock;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutoPipelineTest {
+
+    private static Option option() {
+        Option option = RedisConfig.newOption();
+        option.setAutoPipelineConnections(2);
+        return option;
+    }
+
+    /**
+     * A pool failing fast once its connections are taken: one by the subscriber, and two for pipelines.
+     */
+    private static JedisPooled smallPool() {
+        GenericObjectPoolConfig<Connection> pool = new GenericObjectPoolConfig<>();
+        pool.setMaxTotal(3);
+        pool.setBlockWhenExhausted(false);
+        return new JedisPooled(pool, new HostAndPort(RedisConfig.HOST, RedisConfig.PORT),
+                DefaultJedisClientConfig.builder().database(1).build());
+    }
+
+    @Test
+    void testConcurrentCommandsShareFewConnections() throws InterruptedException {
+        try (JedisPooled jedis = smallPool(); LockFactory factory = LockFactory.of(option(), jedis)) {
+            // load the scripts, which is not pipelined
+            Lock warmUp = factory.get(UUID.randomUUID().toString());
+            warmUp.lock();
+            warmUp.unlock();
+
+            String prefix = UUID.randomUUID() + ":";
+            int threads = 100;
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger completed = new AtomicInteger();
+            List<Thread> started = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Lock lock = factory.get(prefix + i);
+                started.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    lock.lock();
+                    lock.unlock();
+                    completed.incrementAndGet();
+                }));
+            }
+            start.countDown();
+            for (Thread thread : started) {
+                thread.join();
+            }
+            assertEquals(threads, completed.get());
+        }
+    }
+
+    @Test
+    void testErrorRepliesReachTheirCaller() throws InterruptedException {
+        try (JedisPooled jedis = RedisConfig.getJedisPooled()) {
+            try (LockFactory factory = LockFactory.of(option(), jedis)) {
+                jedis.scriptFlush();
+                // NOSCRIPT is replied within the pipeline, and the script loaded
+                Lock lock = factory.get(UUID.randomUUID().toString());
+                assertTrue(lock.tryLock());
+                lock.unlock();
+            }
+            String key = UUID.randomUUID().toString();
+            jedis.set(key, "not-a-number");
+            JedisAutoPipeline pipeline = new JedisAutoPipeline(jedis, 1);
+            assertThrows(JedisDataException.class, () -> pipeline.execute(p -> p.incr(key)));
+            assertEquals("not-a-number", pipeline.execute(p -> p.get(key)));
+            jedis.del(key);
+        }
+    }
+}
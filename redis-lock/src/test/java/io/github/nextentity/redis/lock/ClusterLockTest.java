@@ -0,0 +1,146 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against a Redis Cluster with a node on {@link RedisConfig#CLUSTER_PORT}, and is skipped without one,
+ * except for the slot assignment of key names.
+ */
+class ClusterLockTest {
+
+    private JedisCluster jedis;
+    private final List<LockFactory> factories = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        try {
+            jedis = RedisConfig.getJedisCluster();
+        } catch (JedisException e) {
+            jedis = null;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        factories.forEach(LockFactory::close);
+        if (jedis != null) {
+            jedis.close();
+        }
+    }
+
+    private LockFactory factory() {
+        assumeTrue(jedis != null, "no Redis Cluster on port " + RedisConfig.CLUSTER_PORT);
+        Option option = RedisConfig.newOption();
+        option.setKeyTimeToLive(1000);
+        option.setRenewalInterval(200);
+        option.setReleaseBatchWindow(1000);
+        LockFactory factory = LockFactory.of(option, jedis);
+        factories.add(factory);
+        return factory;
+    }
+
+    @Test
+    void testAuxiliaryKeysShareTheSlotOfTheirLock() {
+        for (String key : List.of(UUID.randomUUID().toString(), "{tenant}" + UUID.randomUUID())) {
+            int slot = JedisClusterCRC16.getSlot(key);
+            for (String derived : List.of(KeyNames.fairQueue(key), KeyNames.fairTimeout(key), KeyNames.readers(key),
+                    KeyNames.writeIntent(key), KeyNames.permits(key), KeyNames.permitTimeout(key), KeyNames.wanted(key),
+                    KeyNames.derive(KeyNames.condition(key, "condition"), "client:1"))) {
+                assertEquals(slot, JedisClusterCRC16.getSlot(derived), derived);
+            }
+        }
+        assertEquals("{tenant}order:readers", KeyNames.readers("{tenant}order"));
+    }
+
+    @Test
+    void testKeysOfManySlotsAreRenewedAndReleasedTogether() throws InterruptedException {
+        LockFactory factory = factory();
+        String prefix = UUID.randomUUID() + ":";
+        List<String> keys = new ArrayList<>();
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            keys.add(prefix + i);
+            slots.add(JedisClusterCRC16.getSlot(prefix + i));
+        }
+        assertTrue(slots.size() > 1);
+
+        CountDownLatch locked = new CountDownLatch(keys.size());
+        CountDownLatch unlock = new CountDownLatch(1);
+        List<Thread> holders = new ArrayList<>();
+        for (String key : keys) {
+            Lock lock = factory.get(key);
+            holders.add(Thread.ofVirtual().start(() -> {
+                lock.lock();
+                locked.countDown();
+                try {
+                    unlock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.unlock();
+                }
+            }));
+        }
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        // renewed across the TTL
+        Thread.sleep(1500);
+        for (String key : keys) {
+            assertTrue(jedis.exists(key), key);
+        }
+        // released concurrently, in batches spanning slots
+        unlock.countDown();
+        for (Thread holder : holders) {
+            holder.join();
+        }
+        for (String key : keys) {
+            assertFalse(jedis.exists(key), key);
+        }
+    }
+
+    @Test
+    void testReleasesWakeWaitersOfOtherNodes() throws InterruptedException {
+        LockFactory holderFactory = factory();
+        LockFactory waiterFactory = factory();
+        String key = UUID.randomUUID().toString();
+        ReadWriteLock holder = holderFactory.getReadWriteLock(key);
+        ReadWriteLock waiter = waiterFactory.getReadWriteLock(key);
+
+        holder.writeLock().lock();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                if (waiter.readLock().tryLock(5, TimeUnit.SECONDS)) {
+                    acquired.countDown();
+                    waiter.readLock().unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(200);
+        long released = System.nanoTime();
+        holder.writeLock().unlock();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        // woken by the published release rather than by polling
+        assertTrue(System.nanoTime() - released < TimeUnit.SECONDS.toNanos(2));
+        thread.join();
+    }
+}
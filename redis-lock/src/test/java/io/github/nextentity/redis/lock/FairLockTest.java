@@ -0,0 +1,113 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairLockTest {
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private LockFactory third;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(RedisConfig.newOption(), jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        third = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        third.close();
+        jedis.close();
+    }
+
+    @Test
+    void testWaitersAcquireInArrivalOrder() throws InterruptedException {
+        Lock holder = first.getFairLock(key);
+        List<String> order = new CopyOnWriteArrayList<>();
+        holder.lock();
+        Thread secondWaiter = waiter(second.getFairLock(key), "second", order);
+        Thread.sleep(100);
+        Thread thirdWaiter = waiter(third.getFairLock(key), "third", order);
+        Thread.sleep(100);
+
+        long start = System.currentTimeMillis();
+        holder.unlock();
+        secondWaiter.join();
+        thirdWaiter.join();
+
+        assertEquals(List.of("second", "third"), order);
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(2));
+        assertFalse(jedis.exists(KeyNames.fairQueue(key)));
+    }
+
+    @Test
+    void testTimedOutWaiterLeavesQueue() throws InterruptedException {
+        Lock holder = first.getFairLock(key);
+        holder.lock();
+        try {
+            boolean[] acquired = {true};
+            Thread thread = new Thread(() -> {
+                try {
+                    acquired[0] = second.getFairLock(key).tryLock(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            thread.join();
+            assertFalse(acquired[0]);
+            assertEquals(0, jedis.llen(KeyNames.fairQueue(key)));
+        } finally {
+            holder.unlock();
+        }
+        assertFalse(jedis.exists(key));
+    }
+
+    @Test
+    void testTryLockDoesNotJumpQueue() throws InterruptedException {
+        Lock holder = first.getFairLock(key);
+        List<String> order = new CopyOnWriteArrayList<>();
+        holder.lock();
+        Thread secondWaiter = waiter(second.getFairLock(key), "second", order);
+        Thread.sleep(100);
+        holder.unlock();
+        // ownership was handed to the queued waiter before unlock returned
+        assertFalse(holder.tryLock());
+        secondWaiter.join();
+        assertEquals(List.of("second"), order);
+    }
+
+    private static Thread waiter(Lock lock, String name, List<String> order) {
+        Thread thread = new Thread(() -> {
+            lock.lock();
+            try {
+                order.add(name);
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.nextentity.redis.lock;
+
+import io.github.nextentity.redis.lock.cache.ReferenceType;
+import io.github.nextentity.redis.lock.cache.ReferenceValueMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without Redis: two factories sharing one {@link InMemorySynchronizeSupport} act as two nodes.
+ */
+class InMemoryLockTest {
+
+    private InMemorySynchronizeSupport support;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        Option option = option();
+        support = new InMemorySynchronizeSupport(option);
+        first = new LockFactory(new ReferenceValueMap<>(ReferenceType.WEAK), option, support);
+        second = new LockFactory(new ReferenceValueMap<>(ReferenceType.WEAK), option(), support);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    private static Option option() {
+        Option option = RedisConfig.newOption();
+        option.setKeyTimeToLive(1000);
+        option.setRenewalInterval(200);
+        return option;
+    }
+
+    @Test
+    void testLockExcludesOtherNodeAndWakesItOnRelease() throws InterruptedException {
+        Lock lock = first.get(key);
+        lock.lock();
+        assertFalse(second.get(key).tryLock());
+        long[] acquiredAt = {0};
+        Thread thread = new Thread(() -> {
+            Lock waiter = second.get(key);
+            waiter.lock();
+            acquiredAt[0] = System.currentTimeMillis();
+            waiter.unlock();
+        });
+        thread.start();
+        Thread.sleep(200);
+        long releasedAt = System.currentTimeMillis();
+        lock.unlock();
+        thread.join();
+        assertTrue(acquiredAt[0] - releasedAt < 500);
+    }
+
+    @Test
+    void testKeysExpireAndOwnedKeysAreRenewed() throws InterruptedException {
+        assertNull(support.setIfAbsentOrGetRemainingTTL(key, "other", 300));
+        Long remainingTTL = support.setIfAbsentOrGetRemainingTTL(key, "mine", 300);
+        assertNotNull(remainingTTL);
+        assertTrue(remainingTTL > 0 && remainingTTL <= 300);
+        assertEquals(List.of(key), support.renewIfOwned(List.of(key), "mine", 300));
+        Thread.sleep(400);
+        assertNull(support.setIfAbsentOrGetRemainingTTL(key, "mine", 300));
+        assertFalse(support.deleteIfValueEquals(key, "other"));
+
+        Lock lock = first.get(key + ":renewed");
+        lock.lock();
+        try {
+            Thread.sleep(1500);
+            assertFalse(second.get(key + ":renewed").tryLock());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void testFairAndMultiKeyLocks() throws InterruptedException {
+        Lock fair = first.getFairLock(key);
+        fair.lock();
+        try {
+            assertFalse(second.getFairLock(key).tryLock(100, TimeUnit.MILLISECONDS));
+        } finally {
+            fair.unlock();
+        }
+        assertTrue(second.getFairLock(key).tryLock(1, TimeUnit.SECONDS));
+        second.getFairLock(key).unlock();
+
+        Lock single = first.get(key + ":b");
+        single.lock();
+        try {
+            assertFalse(second.getMultiLock(List.of(key + ":a", key + ":b")).tryLock());
+        } finally {
+            single.unlock();
+        }
+        Lock multi = second.getMultiLock(List.of(key + ":a", key + ":b"));
+        assertTrue(multi.tryLock(1, TimeUnit.SECONDS));
+        assertFalse(first.get(key + ":a").tryLock());
+        multi.unlock();
+    }
+
+    @Test
+    void testReadWriteLockAndSemaphore() throws InterruptedException {
+        ReadWriteLock a = first.getReadWriteLock(key);
+        ReadWriteLock b = second.getReadWriteLock(key);
+        a.readLock().lock();
+        assertTrue(b.readLock().tryLock());
+        b.readLock().unlock();
+        assertFalse(b.writeLock().tryLock(100, TimeUnit.MILLISECONDS));
+        a.readLock().unlock();
+        assertTrue(b.writeLock().tryLock(1, TimeUnit.SECONDS));
+        assertFalse(a.readLock().tryLock());
+        b.writeLock().unlock();
+
+        RedisSemaphore x = first.getSemaphore(key + ":semaphore", 3);
+        RedisSemaphore y = second.getSemaphore(key + ":semaphore", 3);
+        assertTrue(x.tryAcquire(2));
+        assertFalse(y.tryAcquire(2));
+        assertTrue(y.tryAcquire());
+        x.release(2);
+        assertTrue(y.tryAcquire(2, 1, TimeUnit.SECONDS));
+        y.release(3);
+    }
+
+    @Test
+    void testConditionSignalledFromOtherNode() throws InterruptedException {
+        Lock lock = first.get(key);
+        Condition condition = lock.newCondition();
+        CountDownLatch waiting = new CountDownLatch(1);
+        boolean[] signalled = {false};
+        Thread thread = new Thread(() -> {
+            lock.lock();
+            try {
+                waiting.countDown();
+                signalled[0] = condition.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        thread.start();
+        waiting.await();
+        Lock other = second.get(key);
+        other.lock();
+        try {
+            other.newCondition().signal();
+        } finally {
+            other.unlock();
+        }
+        thread.join();
+        assertTrue(signalled[0]);
+    }
+}
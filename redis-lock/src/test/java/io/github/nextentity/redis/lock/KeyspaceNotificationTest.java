@@ -0,0 +1,93 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyspaceNotificationTest {
+
+    private JedisPooled jedis;
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> admin;
+    private String previousConfig;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        client = RedisConfig.getRedisClient();
+        admin = client.connect();
+        previousConfig = admin.sync().configGet("notify-keyspace-events").getOrDefault("notify-keyspace-events", "");
+        admin.sync().configSet("notify-keyspace-events", "Kgx");
+        prefix = UUID.randomUUID() + ":";
+    }
+
+    @AfterEach
+    void tearDown() {
+        admin.sync().configSet("notify-keyspace-events", previousConfig);
+        admin.close();
+        client.shutdown();
+        jedis.close();
+    }
+
+    private Option option() {
+        Option option = RedisConfig.newOption();
+        option.setKeyspaceNotificationPattern(prefix + "*");
+        return option;
+    }
+
+    @Test
+    void testJedisWaiterWokenByExpiry() throws InterruptedException {
+        try (LockFactory factory = LockFactory.of(option(), jedis)) {
+            String key = prefix + "expiring";
+            // a crashed holder's key, due to expire long before the waiter would check again
+            jedis.psetex(key, TimeUnit.MINUTES.toMillis(1), "crashed-node");
+            assertAcquiredWithin(factory.get(key), () -> jedis.pexpire(key, 200), 2000);
+        }
+    }
+
+    @Test
+    void testJedisWaiterWokenByUnpublishedDeletion() throws InterruptedException {
+        try (LockFactory factory = LockFactory.of(option(), jedis)) {
+            String key = prefix + "deleted";
+            jedis.psetex(key, TimeUnit.MINUTES.toMillis(1), "crashed-node");
+            assertAcquiredWithin(factory.get(key), () -> jedis.del(key), 1000);
+        }
+    }
+
+    @Test
+    void testLettuceWaiterWokenByExpiry() throws InterruptedException {
+        try (LockFactory factory = LockFactory.of(option(), client)) {
+            String key = prefix + "lettuce";
+            jedis.psetex(key, TimeUnit.MINUTES.toMillis(1), "crashed-node");
+            assertAcquiredWithin(factory.get(key), () -> jedis.pexpire(key, 200), 2000);
+        }
+    }
+
+    /**
+     * Waits for a lock in another thread, and asserts it is acquired within {@code maxMillis} of {@code release}.
+     */
+    private static void assertAcquiredWithin(Lock lock, Runnable release, long maxMillis) throws InterruptedException {
+        long[] acquiredAt = {0};
+        Thread thread = new Thread(() -> {
+            lock.lock();
+            acquiredAt[0] = System.currentTimeMillis();
+            lock.unlock();
+        });
+        thread.start();
+        Thread.sleep(300);
+        long releasedAt = System.currentTimeMillis();
+        release.run();
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+        assertTrue(acquiredAt[0] - releasedAt < maxMillis, "acquired after " + (acquiredAt[0] - releasedAt) + " ms");
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaseCachingTest {
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(option(), jedis);
+        second = LockFactory.of(option(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    private static Option option() {
+        Option option = RedisConfig.newOption();
+        option.setLeaseCacheIdleTimeout(TimeUnit.SECONDS.toMillis(2));
+        return option;
+    }
+
+    @Test
+    void testLeaseIsKeptAfterUnlock() {
+        Lock lock = first.get(key);
+        lock.lock();
+        String owner = jedis.get(key);
+        lock.unlock();
+        assertEquals(owner, jedis.get(key));
+
+        jedis.del(key);
+        // relocking a cached lease does not touch Redis
+        lock.lock();
+        assertFalse(jedis.exists(key));
+        lock.unlock();
+    }
+
+    @Test
+    void testCachedLeaseIsGivenUpWhenWanted() throws InterruptedException {
+        Lock lock = first.get(key);
+        lock.lock();
+        lock.unlock();
+        assertTrue(jedis.exists(key));
+
+        long start = System.currentTimeMillis();
+        Lock other = second.get(key);
+        assertTrue(other.tryLock(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(1));
+        other.unlock();
+    }
+
+    @Test
+    void testLeaseWantedWhileInUseIsReleasedOnUnlock() throws InterruptedException {
+        Lock lock = first.get(key);
+        lock.lock();
+        long[] acquiredAt = {0};
+        Thread thread = new Thread(() -> {
+            Lock other = second.get(key);
+            other.lock();
+            acquiredAt[0] = System.currentTimeMillis();
+            other.unlock();
+        });
+        thread.start();
+        Thread.sleep(200);
+        long releasedAt = System.currentTimeMillis();
+        lock.unlock();
+        thread.join();
+        assertTrue(acquiredAt[0] - releasedAt < TimeUnit.SECONDS.toMillis(1));
+    }
+
+    @Test
+    void testIdleLeaseExpires() throws InterruptedException {
+        Lock lock = first.get(key);
+        lock.lock();
+        lock.unlock();
+        assertTrue(jedis.exists(key));
+        Thread.sleep(TimeUnit.SECONDS.toMillis(3));
+        assertFalse(jedis.exists(key));
+    }
+
+    @Test
+    void testConditionWaitReleasesTheLease() throws InterruptedException {
+        Lock lock = first.get(key);
+        Condition condition = lock.newCondition();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch signalled = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            lock.lock();
+            locked.countDown();
+            try {
+                if (condition.await(5, TimeUnit.SECONDS)) {
+                    signalled.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        thread.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertFalse(jedis.exists(key));
+
+        // a node not caching leases publishes no "wanted" signal, so it relies on the lock being released
+        try (LockFactory signaller = LockFactory.of(RedisConfig.newOption(), jedis)) {
+            Lock other = signaller.get(key);
+            long start = System.currentTimeMillis();
+            assertTrue(other.tryLock(5, TimeUnit.SECONDS));
+            assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(1));
+            try {
+                other.newCondition().signal();
+            } finally {
+                other.unlock();
+            }
+        }
+        assertTrue(signalled.await(5, TimeUnit.SECONDS));
+        thread.join();
+    }
+}
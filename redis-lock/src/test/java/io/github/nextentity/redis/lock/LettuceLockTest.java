@@ -0,0 +1,90 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LettuceLockTest {
+
+    private RedisClient client;
+    private LockFactory factory;
+    private LockFactory otherFactory;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        client = RedisConfig.getRedisClient();
+        factory = LockFactory.of(client);
+        Option option = RedisConfig.newOption();
+        otherFactory = LockFactory.of(option, client);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.close();
+        otherFactory.close();
+        client.shutdown();
+    }
+
+    @Test
+    void testLockAndUnlock() {
+        Lock lock = factory.get(key);
+        lock.lock();
+        try {
+            assertTrue(((RedisLock) lock).isHeldByCurrentThread());
+        } finally {
+            lock.unlock();
+        }
+        assertFalse(((RedisLock) lock).isHeldByCurrentThread());
+    }
+
+    @Test
+    void testTryLockHeldByOtherClient() throws InterruptedException {
+        Lock lock = factory.get(key);
+        Lock other = otherFactory.get(key);
+        assertTrue(lock.tryLock());
+        try {
+            AtomicBoolean acquired = new AtomicBoolean(true);
+            Thread thread = new Thread(() -> acquired.set(other.tryLock()));
+            thread.start();
+            thread.join();
+            assertFalse(acquired.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void testReleaseWakesOtherClient() throws InterruptedException {
+        Lock lock = factory.get(key);
+        Lock other = otherFactory.get(key);
+        lock.lock();
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            try {
+                if (other.tryLock(5, TimeUnit.SECONDS)) {
+                    acquired.set(true);
+                    other.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        Thread.sleep(100);
+        long start = System.currentTimeMillis();
+        lock.unlock();
+        thread.join();
+        assertTrue(acquired.get());
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(1));
+    }
+}
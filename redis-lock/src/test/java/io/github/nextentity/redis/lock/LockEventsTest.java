@@ -0,0 +1,108 @@
+package io.github.nextentity.redis.lock;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockEventsTest {
+
+    private static final String PREFIX = "io.github.nextentity.redis.lock.";
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(RedisConfig.newOption(), jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    @Test
+    void testEventsAreRecorded() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("LockAcquire", "LockHeld", "LockRelease", "SubscriberDispatch")) {
+                recording.enable(PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            Lock lock = first.get(key);
+            lock.lock();
+            Thread thread = new Thread(() -> {
+                Lock waiter = second.get(key);
+                waiter.lock();
+                waiter.unlock();
+            });
+            thread.start();
+            Thread.sleep(200);
+            lock.unlock();
+            thread.join();
+            recording.stop();
+            events = read(recording);
+        }
+
+        List<RecordedEvent> acquires = ofType(events, "LockAcquire");
+        assertEquals(2, acquires.size());
+        assertTrue(acquires.stream().allMatch(e -> e.getBoolean("acquired") && key.equals(e.getString("key"))));
+        assertTrue(acquires.stream().anyMatch(e -> e.getInt("retries") > 0
+                                                   && e.getDuration().compareTo(Duration.ofMillis(100)) > 0));
+        assertEquals(2, ofType(events, "LockHeld").size());
+        List<RecordedEvent> releases = ofType(events, "LockRelease");
+        assertEquals(2, releases.size());
+        assertTrue(releases.stream().allMatch(e -> "sync".equals(e.getString("path"))));
+        assertFalse(ofType(events, "SubscriberDispatch").isEmpty());
+    }
+
+    @Test
+    void testEventsBelowThresholdAreNotRecorded() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PREFIX + "LockHeld").withThreshold(Duration.ofHours(1));
+            recording.start();
+            Lock lock = first.get(key);
+            lock.lock();
+            lock.unlock();
+            recording.stop();
+            events = read(recording);
+        }
+        assertTrue(ofType(events, "LockHeld").isEmpty());
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws IOException {
+        Path file = Files.createTempFile("lock-events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + name)).toList();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.nextentity.redis.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockMetricsTest {
+
+    private MeterRegistry registry;
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        registry = new SimpleMeterRegistry();
+        first = LockFactory.of(option(), jedis);
+        second = LockFactory.of(option(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    private Option option() {
+        Option option = RedisConfig.newOption();
+        option.setRenewalInterval(200);
+        option.setMetrics(new MicrometerLockMetrics(registry));
+        return option;
+    }
+
+    @Test
+    void testContendedAcquisitionIsRecorded() throws InterruptedException {
+        Lock lock = first.get(key);
+        lock.lock();
+        Thread thread = new Thread(() -> {
+            Lock waiter = second.get(key);
+            waiter.lock();
+            waiter.unlock();
+        });
+        thread.start();
+        Thread.sleep(400);
+        lock.unlock();
+        thread.join();
+
+        assertEquals(2, registry.get("redis.lock.acquire").tag("outcome", "acquired").timer().count());
+        assertTrue(registry.get("redis.lock.acquire.attempts").summary().max() >= 2);
+        assertTrue(registry.get("redis.lock.wait").timer().count() >= 1);
+        assertTrue(registry.get("redis.lock.messages").counter().count() >= 1);
+        assertTrue(registry.get("redis.lock.renewal.keys").summary().count() >= 1);
+        assertTrue(registry.get("redis.lock.command")
+                .tags("command", "set-if-absent-or-get-remaining-ttl", "outcome", "success").timer().count() >= 3);
+        assertEquals(2, registry.get("redis.lock.command")
+                .tags("command", "release-all-if-value-equals", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void testTimeoutIsRecorded() throws InterruptedException {
+        Lock lock = first.get(key);
+        lock.lock();
+        try {
+            assertFalse(second.get(key).tryLock(100, TimeUnit.MILLISECONDS));
+            assertFalse(second.get(key).tryLock());
+        } finally {
+            lock.unlock();
+        }
+        assertEquals(2, registry.get("redis.lock.acquire").tag("outcome", "timeout").timer().count());
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockRenewalTest {
+
+    private JedisPooled jedis;
+    private LockFactory factory;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        factory = LockFactory.of(option(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.close();
+        jedis.close();
+    }
+
+    private static Option option() {
+        Option option = RedisConfig.newOption();
+        option.setKeyTimeToLive(1000);
+        option.setRenewalInterval(200);
+        return option;
+    }
+
+    @Test
+    void testOwnedKeysAreRenewed() throws InterruptedException {
+        Lock lock = factory.get(key);
+        Lock readLock = factory.getReadWriteLock(key + ":rw").readLock();
+        RedisSemaphore semaphore = factory.getSemaphore(key + ":semaphore", 2);
+        lock.lock();
+        readLock.lock();
+        semaphore.acquire();
+        try {
+            Thread.sleep(1500);
+            assertTrue(jedis.exists(key));
+            assertTrue(jedis.exists(KeyNames.readers(key + ":rw")));
+            assertTrue(jedis.exists(KeyNames.permits(key + ":semaphore")));
+        } finally {
+            semaphore.release();
+            readLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void testLostLockIsReportedAndNotRenewed() throws InterruptedException {
+        BlockingQueue<String> lost = new LinkedBlockingQueue<>();
+        factory.addLockLostListener(lost::add);
+        Lock lock = factory.get(key);
+        lock.lock();
+        jedis.set(key, "other");
+
+        assertEquals(key, lost.poll(1, TimeUnit.SECONDS));
+        // the other client's key was not given a TTL
+        assertEquals(-1, jedis.pttl(key));
+        assertThrows(IllegalMonitorStateException.class, lock::unlock);
+        jedis.del(key);
+    }
+
+    @Test
+    void testLostMultiLockKeyIsReportedByItsName() throws InterruptedException {
+        BlockingQueue<String> lost = new LinkedBlockingQueue<>();
+        factory.addLockLostListener(lost::add);
+        Lock lock = factory.getMultiLock(List.of(key + ":a", key + ":b"));
+        lock.lock();
+        jedis.del(key + ":b");
+
+        assertEquals(key + ":b", lost.poll(1, TimeUnit.SECONDS));
+        assertTrue(jedis.exists(key + ":a"));
+        assertThrows(IllegalMonitorStateException.class, lock::unlock);
+        jedis.del(key + ":a");
+    }
+
+    @Test
+    void testKeysRenewedAfterTheirOwnAcquisition() throws InterruptedException {
+        List<long[]> renewals = new CopyOnWriteArrayList<>();
+        long start = System.currentTimeMillis();
+        Option option = option();
+        option.setKeyTimeToLive(3000);
+        option.setRenewalInterval(1000);
+        option.setMetrics(new LockMetrics() {
+            @Override
+            public void recordRenewal(int keys, int lost) {
+                renewals.add(new long[]{System.currentTimeMillis() - start, keys});
+            }
+        });
+        try (LockFactory wheel = LockFactory.of(option, jedis)) {
+            Lock first = wheel.get(key + ":first");
+            Lock second = wheel.get(key + ":second");
+            first.lock();
+            Thread.sleep(500);
+            second.lock();
+            Thread.sleep(1300);
+            first.unlock();
+            second.unlock();
+        }
+        assertEquals(2, renewals.size());
+        for (long[] renewal : renewals) {
+            // each key on its own, a renewal interval less at most a tick after it was taken
+            assertEquals(1, renewal[1]);
+        }
+        assertTrue(renewals.get(0)[0] >= 1000 - 1000 / LockKeyManager.WHEEL_SIZE - 50, "first at " + renewals.get(0)[0]);
+        assertTrue(renewals.get(1)[0] >= 1500 - 1000 / LockKeyManager.WHEEL_SIZE - 50, "second at " + renewals.get(1)[0]);
+    }
+
+    @Test
+    void testAdaptiveLeaseFollowsHoldTimes() throws InterruptedException {
+        Option option = option();
+        option.setKeyTimeToLive(3000);
+        option.setRenewalInterval(2000);
+        option.setAdaptiveLease(true);
+        option.setMinKeyTimeToLive(300);
+        option.setMaxKeyTimeToLive(10_000);
+        try (LockFactory adaptive = LockFactory.of(option, jedis)) {
+            Lock lock = adaptive.get(key);
+            lock.lock();
+            // not held before
+            assertTrue(jedis.pttl(key) > 2000);
+            lock.unlock();
+
+            lock.lock();
+            // held briefly before, so a crashed holder would block waiters only briefly
+            assertTrue(jedis.pttl(key) <= 300, "ttl " + jedis.pttl(key));
+            // and still renewed when held longer this time
+            Thread.sleep(1000);
+            assertTrue(jedis.exists(key));
+            lock.unlock();
+
+            String longHeld = key + ":long";
+            Lock other = adaptive.get(longHeld);
+            other.lock();
+            Thread.sleep(1000);
+            other.unlock();
+            other.lock();
+            // held for a second, plus its spread, before the first renewal
+            assertTrue(jedis.pttl(longHeld) > 3000, "ttl " + jedis.pttl(longHeld));
+            other.unlock();
+        }
+    }
+
+    @Test
+    void testAdaptiveLeaseIgnoresCachedTime() throws InterruptedException {
+        Option option = option();
+        option.setKeyTimeToLive(3000);
+        option.setRenewalInterval(2000);
+        option.setAdaptiveLease(true);
+        option.setMinKeyTimeToLive(300);
+        option.setMaxKeyTimeToLive(10_000);
+        option.setLeaseCacheIdleTimeout(500);
+        try (LockFactory adaptive = LockFactory.of(option, jedis)) {
+            Lock lock = adaptive.get(key);
+            lock.lock();
+            lock.unlock();
+            // kept in Redis while idle, then released
+            assertTrue(jedis.exists(key));
+            Thread.sleep(1500);
+            assertFalse(jedis.exists(key));
+
+            lock.lock();
+            // held briefly, however long the lease was cached
+            assertTrue(jedis.pttl(key) <= 300, "ttl " + jedis.pttl(key));
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void testLettuceRenewal() throws InterruptedException {
+        RedisClient client = RedisConfig.getRedisClient();
+        try (LockFactory lettuce = LockFactory.of(option(), client)) {
+            BlockingQueue<String> lost = new LinkedBlockingQueue<>();
+            lettuce.addLockLostListener(lost::add);
+            Lock kept = lettuce.getMultiLock(List.of(key + ":a", key + ":b"));
+            Lock stolen = lettuce.get(key);
+            kept.lock();
+            stolen.lock();
+            jedis.del(key);
+
+            assertEquals(key, lost.poll(1, TimeUnit.SECONDS));
+            Thread.sleep(1000);
+            assertTrue(lost.isEmpty());
+            assertEquals(2, jedis.exists(key + ":a", key + ":b"));
+            kept.unlock();
+        } finally {
+            client.shutdown();
+        }
+    }
+}
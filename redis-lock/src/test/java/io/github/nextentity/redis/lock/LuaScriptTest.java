@@ -0,0 +1,33 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LuaScriptTest {
+    @Test
+    void testSha1MatchesRedis() {
+        try (JedisPooled jedis = RedisConfig.getJedisPooled()) {
+            LuaScript script = LockScripts.SET_IF_ABSENT_OR_GET_REMAINING_TTL;
+            assertEquals(jedis.scriptLoad(script.getSource(), "sample"), script.getSha1());
+        }
+    }
+
+    @Test
+    void testReloadAfterScriptFlush() {
+        try (JedisPooled jedis = RedisConfig.getJedisPooled();
+             LockFactory factory = LockFactory.of(jedis)) {
+            Lock lock = factory.get(UUID.randomUUID().toString());
+            lock.lock();
+            jedis.scriptFlush();
+            lock.unlock();
+            assertTrue(lock.tryLock());
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiLockTest {
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(RedisConfig.newOption(), jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        prefix = UUID.randomUUID() + ":";
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    @Test
+    void testAllOrNothing() throws InterruptedException {
+        String a = prefix + "a", b = prefix + "b", c = prefix + "c";
+        Lock single = first.get(b);
+        single.lock();
+        try {
+            assertFalse(second.getMultiLock(List.of(a, b, c)).tryLock());
+            // no key was taken by the failed attempt
+            assertFalse(jedis.exists(a));
+            assertFalse(jedis.exists(c));
+        } finally {
+            single.unlock();
+        }
+
+        Lock multi = second.getMultiLock(List.of(c, a, b));
+        assertSame(multi, second.getMultiLock(List.of(a, b, c)));
+        assertTrue(multi.tryLock(1, TimeUnit.SECONDS));
+        try {
+            assertEquals(3, jedis.exists(a, b, c));
+            assertFalse(first.get(c).tryLock());
+        } finally {
+            multi.unlock();
+        }
+        assertEquals(0, jedis.exists(a, b, c));
+    }
+
+    @Test
+    void testWaiterWakesOnReleaseOfAnyKey() throws InterruptedException {
+        String a = prefix + "a", b = prefix + "b", c = prefix + "c";
+        Lock holder = first.getMultiLock(List.of(a, b));
+        holder.lock();
+        long[] acquiredAt = {0};
+        Thread thread = new Thread(() -> {
+            Lock waiter = second.getMultiLock(List.of(b, c));
+            waiter.lock();
+            acquiredAt[0] = System.currentTimeMillis();
+            waiter.unlock();
+        });
+        thread.start();
+        Thread.sleep(200);
+        long releasedAt = System.currentTimeMillis();
+        holder.unlock();
+        thread.join();
+        assertTrue(acquiredAt[0] - releasedAt < TimeUnit.SECONDS.toMillis(1));
+    }
+
+    @Test
+    void testOverlappingLockHeldByCurrentThreadFails() throws InterruptedException {
+        String a = prefix + "a", b = prefix + "b", c = prefix + "c";
+        Lock held = first.getMultiLock(List.of(a, b));
+        Lock overlapping = first.getMultiLock(List.of(b, c));
+        held.lock();
+        try {
+            assertThrows(IllegalMonitorStateException.class, overlapping::lock);
+            assertThrows(IllegalMonitorStateException.class, () -> overlapping.tryLock(1, TimeUnit.SECONDS));
+            // still reentrant, and the failed attempts left no key or local hold behind
+            assertTrue(held.tryLock());
+            held.unlock();
+            assertFalse(jedis.exists(c));
+        } finally {
+            held.unlock();
+        }
+        assertTrue(overlapping.tryLock());
+        overlapping.unlock();
+    }
+
+    @Test
+    void testOppositeKeyOrdersDoNotDeadlock() throws InterruptedException {
+        String x = prefix + "x", y = prefix + "y";
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (LockFactory factory : List.of(first, second)) {
+            for (List<String> keys : List.of(List.of(x, y), List.of(y, x))) {
+                Thread thread = new Thread(() -> {
+                    Lock lock = factory.getMultiLock(keys);
+                    for (int i = 0; i < 10; i++) {
+                        lock.lock();
+                        try {
+                            if (inside.incrementAndGet() > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            inside.decrementAndGet();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive());
+        }
+        assertEquals(0, overlaps.get());
+    }
+}
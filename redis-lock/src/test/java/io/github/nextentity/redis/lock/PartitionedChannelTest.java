@@ -0,0 +1,90 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedChannelTest {
+
+    private JedisPooled jedis;
+    private LockFactory factory;
+    private LockFactory otherFactory;
+    private ReleaseChannels channels;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        factory = LockFactory.of(option(), jedis);
+        otherFactory = LockFactory.of(option(), jedis);
+        channels = new ReleaseChannels(Option.DEFAULT_CHANNEL_ID, 16);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.close();
+        otherFactory.close();
+        jedis.close();
+    }
+
+    private static Option option() {
+        Option option = RedisConfig.newOption();
+        option.setChannelPartitions(16);
+        option.setChannelIdleTimeout(200);
+        return option;
+    }
+
+    private static long numSub(String channel) {
+        try (Jedis client = new Jedis(RedisConfig.HOST, RedisConfig.PORT)) {
+            return client.pubsubNumSub(channel).get(channel);
+        }
+    }
+
+    @Test
+    void testChannelOf() {
+        assertEquals(channels.channelOf(key), channels.channelOf(key));
+        assertTrue(channels.channelOf(key).startsWith(Option.DEFAULT_CHANNEL_ID + ":"));
+        assertEquals(Option.DEFAULT_CHANNEL_ID, new ReleaseChannels(Option.DEFAULT_CHANNEL_ID, 1).channelOf(key));
+    }
+
+    @Test
+    void testReleaseWakesWaiterAndChannelIsDropped() throws InterruptedException {
+        Lock lock = factory.get(key);
+        Lock other = otherFactory.get(key);
+        String channel = channels.channelOf(key);
+        lock.lock();
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            try {
+                if (other.tryLock(5, TimeUnit.SECONDS)) {
+                    acquired.set(true);
+                    other.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        Thread.sleep(200);
+        assertTrue(numSub(channel) >= 1);
+
+        long start = System.currentTimeMillis();
+        lock.unlock();
+        thread.join();
+        assertTrue(acquired.get());
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(1));
+
+        Thread.sleep(600);
+        assertEquals(0L, numSub(channel));
+    }
+}
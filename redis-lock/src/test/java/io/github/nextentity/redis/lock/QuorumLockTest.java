@@ -0,0 +1,135 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuorumLockTest {
+
+    // databases of the same server stand in for independent instances
+    private List<JedisPooled> instances;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        instances = List.of(RedisConfig.getJedisPooled(2), RedisConfig.getJedisPooled(3), RedisConfig.getJedisPooled(4));
+        first = LockFactory.ofQuorum(RedisConfig.newOption(), instances);
+        second = LockFactory.ofQuorum(RedisConfig.newOption(), instances);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        for (JedisPooled instance : instances) {
+            instance.del(key);
+            instance.close();
+        }
+    }
+
+    private void occupy(JedisPooled instance) {
+        instance.set(key, "other", SetParams.setParams().px(TimeUnit.SECONDS.toMillis(10)));
+    }
+
+    @Test
+    void testMajorityAcquires() throws InterruptedException {
+        occupy(instances.get(0));
+        Lock lock = first.get(key);
+        assertTrue(lock.tryLock(1, TimeUnit.SECONDS));
+        try {
+            assertTrue(instances.get(1).exists(key));
+            assertTrue(instances.get(2).exists(key));
+            assertFalse(second.get(key).tryLock());
+        } finally {
+            lock.unlock();
+        }
+        assertFalse(instances.get(1).exists(key));
+        assertFalse(instances.get(2).exists(key));
+        assertEquals("other", instances.get(0).get(key));
+    }
+
+    @Test
+    void testUnsupportedLocksFailWhenRequested() {
+        assertThrows(UnsupportedOperationException.class, () -> first.getFairLock(key));
+        assertThrows(UnsupportedOperationException.class, () -> first.getReadWriteLock(key));
+        assertThrows(UnsupportedOperationException.class, () -> first.getSemaphore(key, 1));
+        assertThrows(UnsupportedOperationException.class, () -> first.get(key).newCondition());
+    }
+
+    @Test
+    void testMinorityIsRolledBack() throws InterruptedException {
+        occupy(instances.get(0));
+        occupy(instances.get(1));
+        assertFalse(first.get(key).tryLock());
+        // an instance that had not replied when the attempt failed is rolled back once it does
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(1);
+        while (instances.get(2).exists(key) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(instances.get(2).exists(key));
+    }
+
+    @Test
+    void testWaiterWakesOnRelease() throws InterruptedException {
+        Lock holder = first.get(key);
+        holder.lock();
+        long[] acquiredAt = {0};
+        Thread thread = new Thread(() -> {
+            Lock waiter = second.get(key);
+            waiter.lock();
+            acquiredAt[0] = System.currentTimeMillis();
+            waiter.unlock();
+        });
+        thread.start();
+        Thread.sleep(200);
+        long releasedAt = System.currentTimeMillis();
+        holder.unlock();
+        thread.join();
+        assertTrue(acquiredAt[0] - releasedAt < TimeUnit.SECONDS.toMillis(1));
+    }
+
+    @Test
+    void testUnavailableInstanceIsTolerated() throws InterruptedException {
+        JedisPooled unavailable = new JedisPooled(new HostAndPort(RedisConfig.HOST, 1));
+        try (LockFactory factory = LockFactory.ofQuorum(RedisConfig.newOption(), List.of(instances.get(0), instances.get(1), unavailable))) {
+            Lock lock = factory.get(key);
+            assertTrue(lock.tryLock(1, TimeUnit.SECONDS));
+            lock.unlock();
+        } finally {
+            unavailable.close();
+        }
+        assertFalse(instances.get(0).exists(key));
+    }
+
+    @Test
+    void testKeyOwnedOnMinorityIsLost() throws Exception {
+        JedisPooled unavailable = new JedisPooled(new HostAndPort(RedisConfig.HOST, 1));
+        Option option = RedisConfig.newOption();
+        List<SynchronizeSupport> supports = List.of(new JedisSynchronizeSupport(instances.get(0), option),
+                new JedisSynchronizeSupport(instances.get(1), option), new JedisSynchronizeSupport(unavailable, option));
+        try (QuorumSynchronizeSupport support = new QuorumSynchronizeSupport(supports, option)) {
+            String value = option.getClientId();
+            instances.get(0).set(key, value);
+            // expired on the second instance, and the third is down
+            assertEquals(List.of(key), support.renewIfOwned(List.of(key), value, TimeUnit.SECONDS.toMillis(10)));
+
+            instances.get(1).set(key, value);
+            assertEquals(List.of(), support.renewIfOwned(List.of(key), value, TimeUnit.SECONDS.toMillis(10)));
+        } finally {
+            unavailable.close();
+        }
+    }
+}
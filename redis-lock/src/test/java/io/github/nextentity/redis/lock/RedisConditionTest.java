@@ -0,0 +1,137 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisConditionTest {
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(RedisConfig.newOption(), jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    @Test
+    void testSignalWakesWaiterOnOtherNode() throws InterruptedException {
+        Lock consumerLock = first.get(key);
+        Condition consumerCondition = consumerLock.newCondition();
+        boolean[] signalled = {false};
+        Thread consumer = new Thread(() -> {
+            consumerLock.lock();
+            try {
+                // the lock is held again once await returns
+                signalled[0] = consumerCondition.await(5, TimeUnit.SECONDS)
+                               && ((RedisLock) consumerLock).isHeldByCurrentThread();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                consumerLock.unlock();
+            }
+        });
+        consumer.start();
+        Thread.sleep(200);
+
+        Lock producerLock = second.get(key);
+        long start = System.currentTimeMillis();
+        // the waiting consumer has released the lock
+        assertTrue(producerLock.tryLock(1, TimeUnit.SECONDS));
+        try {
+            producerLock.newCondition().signal();
+        } finally {
+            producerLock.unlock();
+        }
+        consumer.join();
+        assertTrue(signalled[0]);
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(2));
+        assertFalse(jedis.exists(KeyNames.condition(key, RedisLock.DEFAULT_CONDITION)));
+    }
+
+    @Test
+    void testSignalWakesOneAndSignalAllWakesAll() throws InterruptedException {
+        AtomicInteger woken = new AtomicInteger();
+        List<Thread> waiters = new ArrayList<>();
+        for (LockFactory factory : List.of(first, second)) {
+            Lock lock = factory.get(key);
+            Thread thread = new Thread(() -> {
+                lock.lock();
+                try {
+                    if (lock.newCondition().await(5, TimeUnit.SECONDS)) {
+                        woken.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.unlock();
+                }
+            });
+            thread.start();
+            waiters.add(thread);
+        }
+        Thread.sleep(300);
+
+        Lock lock = first.get(key);
+        lock.lock();
+        try {
+            lock.newCondition().signal();
+        } finally {
+            lock.unlock();
+        }
+        Thread.sleep(300);
+        assertEquals(1, woken.get());
+
+        lock.lock();
+        try {
+            lock.newCondition().signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread waiter : waiters) {
+            waiter.join();
+        }
+        assertEquals(2, woken.get());
+    }
+
+    @Test
+    void testTimedAwaitLeavesQueue() throws InterruptedException {
+        RedisLock lock = (RedisLock) first.get(key);
+        Condition condition = lock.newCondition("timed");
+        assertThrows(IllegalMonitorStateException.class, condition::signal);
+        lock.lock();
+        lock.lock();
+        try {
+            assertFalse(condition.await(100, TimeUnit.MILLISECONDS));
+            assertEquals(2, lock.getHoldCount());
+        } finally {
+            lock.unlock();
+            lock.unlock();
+        }
+        assertFalse(jedis.exists(KeyNames.condition(key, "timed")));
+        assertFalse(jedis.exists(key));
+    }
+}
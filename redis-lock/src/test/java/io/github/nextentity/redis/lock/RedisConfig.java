@@ -5,6 +5,7 @@ import io.lettuce.core.RedisURI;
 import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPooled;
 
 public class RedisConfig {
@@ -12,12 +13,26 @@ public class RedisConfig {
     public static final String HOST = "127.0.0.1";
     public static final int PORT = 6379;
     public static final String PASSWORD = "root";
+    public static final int CLUSTER_PORT = 7000;
+
+    /**
+     * Creates options with a client ID of their own, so that each factory acts as a separate node.
+     */
+    public static Option newOption() {
+        Option option = new Option();
+        option.setClientId(IdGenerator.generateUniqueId());
+        return option;
+    }
 
     public static JedisPooled getJedisPooled() {
+        return getJedisPooled(1);
+    }
+
+    public static JedisPooled getJedisPooled(int database) {
         HostAndPort addr = new HostAndPort(HOST, PORT);
         JedisClientConfig config = DefaultJedisClientConfig.builder()
 //                .password(PASSWORD)
-                .database(1)
+                .database(database)
                 .build();
         return new JedisPooled(addr, config);
     }
@@ -31,4 +46,11 @@ public class RedisConfig {
                 .build();
         return RedisClient.create(redisUri);
     }
+
+    /**
+     * Connects to a Redis Cluster having a node on {@link #CLUSTER_PORT}.
+     */
+    public static JedisCluster getJedisCluster() {
+        return new JedisCluster(new HostAndPort(HOST, CLUSTER_PORT));
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisReadWriteLockTest {
+
+    private JedisPooled jedis;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        first = LockFactory.of(RedisConfig.newOption(), jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    @Test
+    void testReadersShareLock() throws InterruptedException {
+        Lock firstReader = first.getReadWriteLock(key).readLock();
+        Lock secondReader = second.getReadWriteLock(key).readLock();
+        firstReader.lock();
+        try {
+            assertTrue(secondReader.tryLock(1, TimeUnit.SECONDS));
+            assertEquals(2, jedis.zcard(KeyNames.readers(key)));
+            secondReader.unlock();
+        } finally {
+            firstReader.unlock();
+        }
+        assertFalse(jedis.exists(KeyNames.readers(key)));
+    }
+
+    @Test
+    void testLocalReadersTakeOneShare() throws InterruptedException {
+        ReadWriteLock lock = first.getReadWriteLock(key);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        lock.readLock().lock();
+        Thread thread = new Thread(() -> {
+            lock.readLock().lock();
+            try {
+                locked.countDown();
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+        thread.start();
+        try {
+            assertTrue(locked.await(1, TimeUnit.SECONDS));
+            assertEquals(1, jedis.zcard(KeyNames.readers(key)));
+        } finally {
+            done.countDown();
+            thread.join();
+            lock.readLock().unlock();
+        }
+        assertFalse(jedis.exists(KeyNames.readers(key)));
+    }
+
+    @Test
+    void testWriterWaitsForReaders() throws InterruptedException {
+        Lock reader = first.getReadWriteLock(key).readLock();
+        Lock writer = second.getReadWriteLock(key).writeLock();
+        reader.lock();
+        AtomicLong acquiredAt = new AtomicLong();
+        Thread thread = new Thread(() -> {
+            writer.lock();
+            acquiredAt.set(System.currentTimeMillis());
+            writer.unlock();
+        });
+        thread.start();
+        Thread.sleep(200);
+        assertEquals(0, acquiredAt.get());
+        assertFalse(first.getReadWriteLock(key).writeLock().tryLock());
+
+        long releasedAt = System.currentTimeMillis();
+        reader.unlock();
+        thread.join();
+        assertTrue(acquiredAt.get() - releasedAt < TimeUnit.SECONDS.toMillis(1));
+        assertFalse(jedis.exists(key));
+    }
+
+    @Test
+    void testExpiredReaderDoesNotBlockWriter() throws InterruptedException {
+        // a reader that crashed, whose lease expires in 300 ms
+        jedis.zadd(KeyNames.readers(key), System.currentTimeMillis() + 300, "crashed");
+        Lock writer = first.getReadWriteLock(key).writeLock();
+        assertFalse(writer.tryLock());
+        assertTrue(writer.tryLock(2, TimeUnit.SECONDS));
+        assertFalse(jedis.exists(KeyNames.readers(key)));
+        writer.unlock();
+    }
+
+    @Test
+    void testWaitingWriterHoldsBackNewReaders() throws InterruptedException {
+        Lock reader = first.getReadWriteLock(key).readLock();
+        reader.lock();
+        Thread thread = new Thread(() -> {
+            Lock writer = second.getReadWriteLock(key).writeLock();
+            writer.lock();
+            writer.unlock();
+        });
+        thread.start();
+        try {
+            Thread.sleep(200);
+            assertTrue(jedis.exists(KeyNames.writeIntent(key)));
+            LockFactory third = LockFactory.of(RedisConfig.newOption(), jedis);
+            try {
+                assertFalse(third.getReadWriteLock(key).readLock().tryLock());
+            } finally {
+                third.close();
+            }
+        } finally {
+            reader.unlock();
+        }
+        thread.join();
+        assertFalse(jedis.exists(KeyNames.writeIntent(key)));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisSemaphoreTest {
+
+    private JedisPooled jedis;
+    private Option firstOption;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        firstOption = RedisConfig.newOption();
+        first = LockFactory.of(firstOption, jedis);
+        second = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        jedis.close();
+    }
+
+    @Test
+    void testPermitsAreSharedAcrossNodes() {
+        RedisSemaphore firstSemaphore = first.getSemaphore(key, 3);
+        RedisSemaphore secondSemaphore = second.getSemaphore(key, 3);
+        assertTrue(firstSemaphore.tryAcquire(2));
+        assertFalse(secondSemaphore.tryAcquire(2));
+        assertTrue(secondSemaphore.tryAcquire());
+        assertFalse(firstSemaphore.tryAcquire());
+
+        firstSemaphore.release(2);
+        secondSemaphore.release();
+        assertFalse(jedis.exists(KeyNames.permits(key)));
+        assertThrows(IllegalStateException.class, firstSemaphore::release);
+        assertThrows(IllegalArgumentException.class, () -> first.getSemaphore(key, 4));
+    }
+
+    @Test
+    void testWaiterWakesOnRelease() throws InterruptedException {
+        RedisSemaphore firstSemaphore = first.getSemaphore(key, 2);
+        firstSemaphore.acquire(2);
+        long[] acquiredAt = {0};
+        Thread thread = new Thread(() -> {
+            try {
+                RedisSemaphore secondSemaphore = second.getSemaphore(key, 2);
+                if (secondSemaphore.tryAcquire(2, 5, TimeUnit.SECONDS)) {
+                    acquiredAt[0] = System.currentTimeMillis();
+                    secondSemaphore.release(2);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        Thread.sleep(200);
+        long releasedAt = System.currentTimeMillis();
+        firstSemaphore.release(2);
+        thread.join();
+        assertTrue(acquiredAt[0] > 0);
+        assertTrue(acquiredAt[0] - releasedAt < TimeUnit.SECONDS.toMillis(1));
+    }
+
+    @Test
+    void testConcurrentAcquiresNeverExceedPermits() throws InterruptedException {
+        int permits = 3;
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (LockFactory factory : List.of(first, second)) {
+            RedisSemaphore semaphore = factory.getSemaphore(key, permits);
+            for (int i = 0; i < 4; i++) {
+                Thread thread = new Thread(() -> {
+                    for (int j = 0; j < 10; j++) {
+                        try {
+                            semaphore.acquire();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        try {
+                            maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                            Thread.sleep(5);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            inUse.decrementAndGet();
+                            semaphore.release();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive());
+        }
+        assertTrue(maxInUse.get() <= permits);
+        assertFalse(jedis.exists(KeyNames.permits(key)));
+    }
+
+    @Test
+    void testExpiredLeaseReturnsPermits() {
+        RedisSemaphore firstSemaphore = first.getSemaphore(key, 1);
+        assertTrue(firstSemaphore.tryAcquire());
+        assertFalse(second.getSemaphore(key, 1).tryAcquire());
+        // what the first node's lease looks like once it crashed and stopped renewing
+        jedis.zadd(KeyNames.permitTimeout(key), 0, firstOption.getClientId());
+        assertTrue(second.getSemaphore(key, 1).tryAcquire());
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisClient;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReleaseBatchTest {
+
+    private static final String RELEASE_SCRIPT = LockScripts.RELEASE_ALL_IF_VALUE_EQUALS.getName();
+
+    private static Option option(AtomicInteger releaseRoundTrips) {
+        Option option = RedisConfig.newOption();
+        option.setReleaseBatchWindow(500);
+        option.setMetrics(new LockMetrics() {
+            @Override
+            public void recordCommand(String command, long nanos, boolean failed) {
+                if (RELEASE_SCRIPT.equals(command)) {
+                    releaseRoundTrips.incrementAndGet();
+                }
+            }
+        });
+        return option;
+    }
+
+    @Test
+    void testConcurrentUnlocksShareRoundTrips() throws InterruptedException {
+        AtomicInteger roundTrips = new AtomicInteger();
+        try (JedisPooled jedis = RedisConfig.getJedisPooled();
+             LockFactory factory = LockFactory.of(option(roundTrips), jedis)) {
+            assertEquals(64, unlockConcurrently(factory, 64));
+        }
+        assertTrue(roundTrips.get() < 64, roundTrips.get() + " round trips");
+    }
+
+    @Test
+    void testLettuceConcurrentUnlocksShareRoundTrips() throws InterruptedException {
+        AtomicInteger roundTrips = new AtomicInteger();
+        RedisClient client = RedisConfig.getRedisClient();
+        try (LockFactory factory = LockFactory.of(option(roundTrips), client)) {
+            assertEquals(64, unlockConcurrently(factory, 64));
+        } finally {
+            client.shutdown();
+        }
+        assertTrue(roundTrips.get() < 64, roundTrips.get() + " round trips");
+    }
+
+    @Test
+    void testBatchedReleaseWakesWaitersAndReportsLostKeys() throws InterruptedException {
+        AtomicInteger roundTrips = new AtomicInteger();
+        String key = UUID.randomUUID().toString();
+        try (JedisPooled jedis = RedisConfig.getJedisPooled();
+             LockFactory holder = LockFactory.of(option(roundTrips), jedis);
+             LockFactory waiter = LockFactory.of(option(new AtomicInteger()), jedis)) {
+            Lock lock = holder.get(key);
+            lock.lock();
+            CountDownLatch acquired = new CountDownLatch(1);
+            Thread thread = new Thread(() -> {
+                Lock waiting = waiter.get(key);
+                waiting.lock();
+                acquired.countDown();
+                waiting.unlock();
+            });
+            thread.start();
+            Thread.sleep(200);
+            lock.unlock();
+            // woken by the release published from the batch, long before the wait limit
+            assertTrue(acquired.await(1, TimeUnit.SECONDS));
+            thread.join();
+
+            lock.lock();
+            jedis.del(key);
+            assertThrows(IllegalMonitorStateException.class, lock::unlock);
+        }
+    }
+
+    /**
+     * Locks distinct keys from many threads and unlocks them at once.
+     *
+     * @return The number of unlocks that succeeded
+     */
+    private static int unlockConcurrently(LockFactory factory, int threads) throws InterruptedException {
+        String prefix = UUID.randomUUID() + ":";
+        CountDownLatch locked = new CountDownLatch(threads);
+        CountDownLatch unlock = new CountDownLatch(1);
+        AtomicInteger unlocked = new AtomicInteger();
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Lock lock = factory.get(prefix + i);
+            started.add(Thread.ofVirtual().start(() -> {
+                lock.lock();
+                locked.countDown();
+                try {
+                    unlock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lock.unlock();
+                unlocked.incrementAndGet();
+            }));
+        }
+        locked.await();
+        unlock.countDown();
+        for (Thread thread : started) {
+            thread.join();
+        }
+        return unlocked.get();
+    }
+}
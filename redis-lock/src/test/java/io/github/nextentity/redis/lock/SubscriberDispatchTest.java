@@ -0,0 +1,101 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriberDispatchTest {
+
+    @Test
+    void testRepeatedKeysCoalesced() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<String> dispatched = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            StripedDispatcher dispatcher = new StripedDispatcher(1, 100, executor, key -> {
+                awaitQuietly(blocked);
+                dispatched.add(key);
+            });
+            dispatcher.offer("first");
+            // wait until the stripe took "first", blocking on the latch
+            while (dispatcher.depth() > 0) {
+                Thread.onSpinWait();
+            }
+            assertEquals(1, dispatcher.offer("second"));
+            assertEquals(1, dispatcher.offer("second"));
+            assertEquals(2, dispatcher.offer("third"));
+            assertEquals(2, dispatcher.depth());
+            blocked.countDown();
+            while (dispatched.size() < 3) {
+                Thread.onSpinWait();
+            }
+            assertEquals(List.of("first", "second", "third"), dispatched);
+            assertEquals(0, dispatcher.depth());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFullQueueDispatchesOnCallingThread() {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        // an executor that never runs anything leaves every key queued
+        StripedDispatcher dispatcher = new StripedDispatcher(2, 2, command -> {
+        }, key -> threads.add(Thread.currentThread()));
+        dispatcher.offer("a");
+        dispatcher.offer("b");
+        assertTrue(threads.isEmpty());
+        assertEquals(2, dispatcher.offer("c"));
+        assertEquals(List.of(Thread.currentThread()), threads);
+        assertThrows(IllegalArgumentException.class, () -> new StripedDispatcher(0, 1, Runnable::run, key -> {
+        }));
+    }
+
+    @Test
+    void testSlowCallbackDoesNotDelayOtherKeys() throws InterruptedException {
+        Option option = RedisConfig.newOption();
+        option.setDispatchStripes(4);
+        String slowKey = UUID.randomUUID().toString();
+        String key = UUID.randomUUID().toString();
+        // find a key on another stripe than the slow one
+        while (Math.floorMod(key.hashCode(), option.getDispatchStripes())
+               == Math.floorMod(slowKey.hashCode(), option.getDispatchStripes())) {
+            key = UUID.randomUUID().toString();
+        }
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        try (JedisPooled jedis = RedisConfig.getJedisPooled();
+             JedisSynchronizeSupport support = new JedisSynchronizeSupport(jedis, option)) {
+            // let the subscription thread connect
+            Thread.sleep(200);
+            support.subscribeToKey(slowKey, () -> {
+                slowStarted.countDown();
+                awaitQuietly(released);
+            });
+            CountDownLatch woken = new CountDownLatch(1);
+            support.subscribeToKey(key, woken::countDown);
+            support.publishKey(slowKey);
+            assertTrue(slowStarted.await(1, TimeUnit.SECONDS));
+            support.publishKey(key);
+            assertTrue(woken.await(1, TimeUnit.SECONDS));
+            released.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.nextentity.redis.lock;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingLockTest {
+
+    private RedisClient client;
+    private LockFactory first;
+    private LockFactory second;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        client = RedisConfig.getRedisClient();
+        first = LockFactory.ofTracking(RedisConfig.newOption(), client);
+        second = LockFactory.ofTracking(RedisConfig.newOption(), client);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+        client.shutdown();
+    }
+
+    @Test
+    void testWaiterWokenByDeletionWithoutPublish() throws InterruptedException {
+        long published;
+        try (StatefulRedisConnection<String, String> monitor = client.connect()) {
+            Lock lock = first.get(key);
+            lock.lock();
+            long[] acquiredAt = {0};
+            Thread thread = new Thread(() -> {
+                Lock waiter = second.get(key);
+                waiter.lock();
+                acquiredAt[0] = System.currentTimeMillis();
+                waiter.unlock();
+            });
+            thread.start();
+            Thread.sleep(200);
+            long publishedBefore = publishCount(monitor);
+            long releasedAt = System.currentTimeMillis();
+            lock.unlock();
+            thread.join();
+            // woken well before the wait limit elapsed
+            assertTrue(acquiredAt[0] - releasedAt < 500, "woken after " + (acquiredAt[0] - releasedAt) + " ms");
+            published = publishCount(monitor) - publishedBefore;
+        }
+        // the two unlocks only deleted their key
+        assertEquals(0, published);
+    }
+
+    @Test
+    void testWaiterWokenByExpiry() throws InterruptedException {
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            connection.sync().psetex(key, 300, "crashed-node");
+            long start = System.currentTimeMillis();
+            Lock lock = second.get(key);
+            assertTrue(lock.tryLock(5, TimeUnit.SECONDS));
+            lock.unlock();
+            assertTrue(System.currentTimeMillis() - start < 2000);
+        }
+    }
+
+    @Test
+    void testPublishedReleasesStillWakeWaiters() throws InterruptedException {
+        ReadWriteLock holder = first.getReadWriteLock(key);
+        holder.readLock().lock();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            Lock writeLock = second.getReadWriteLock(key).writeLock();
+            writeLock.lock();
+            acquired.countDown();
+            writeLock.unlock();
+        });
+        thread.start();
+        Thread.sleep(200);
+        holder.readLock().unlock();
+        assertTrue(acquired.await(1, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    /**
+     * Returns the number of PUBLISH commands Redis executed so far.
+     */
+    private static long publishCount(StatefulRedisConnection<String, String> connection) {
+        String stats = connection.sync().info("commandstats");
+        for (String line : stats.split("\r\n")) {
+            if (line.startsWith("cmdstat_publish:")) {
+                return Long.parseLong(line.substring(line.indexOf("calls=") + 6, line.indexOf(',')));
+            }
+        }
+        return 0;
+    }
+}
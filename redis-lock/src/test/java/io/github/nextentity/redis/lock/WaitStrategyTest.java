@@ -0,0 +1,116 @@
+package io.github.nextentity.redis.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitStrategyTest {
+
+    private JedisPooled jedis;
+    private LockFactory holder;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        jedis = RedisConfig.getJedisPooled();
+        holder = LockFactory.of(RedisConfig.newOption(), jedis);
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        holder.close();
+        jedis.close();
+    }
+
+    @Test
+    void testStrategySelectedPerKey() throws InterruptedException {
+        List<Integer> retries = new CopyOnWriteArrayList<>();
+        WaitStrategy recording = (attempt, maxWaitNanos) -> {
+            retries.add(attempt);
+            LockSupport.parkNanos(Math.min(maxWaitNanos, TimeUnit.MILLISECONDS.toNanos(20)));
+        };
+        Option option = RedisConfig.newOption();
+        option.setWaitStrategySelector(k -> k.equals(key) ? recording : null);
+        try (LockFactory waiter = LockFactory.of(option, jedis)) {
+            Lock lock = holder.get(key);
+            lock.lock();
+            try {
+                assertFalse(waiter.get(key).tryLock(200, TimeUnit.MILLISECONDS));
+            } finally {
+                lock.unlock();
+            }
+            assertTrue(retries.size() > 2);
+            assertEquals(List.of(1, 2, 3), retries.subList(0, 3));
+
+            retries.clear();
+            Lock other = holder.get(key + ":other");
+            other.lock();
+            try {
+                assertFalse(waiter.get(key + ":other").tryLock(100, TimeUnit.MILLISECONDS));
+            } finally {
+                other.unlock();
+            }
+            assertTrue(retries.isEmpty());
+        }
+    }
+
+    @Test
+    void testSpinThenParkAcquiresShortHeldLock() throws InterruptedException {
+        Option option = RedisConfig.newOption();
+        option.setWaitStrategy(WaitStrategy.spinThenPark(1000));
+        try (LockFactory waiter = LockFactory.of(option, jedis)) {
+            Lock lock = holder.get(key);
+            lock.lock();
+            Thread thread = new Thread(() -> {
+                Lock spinning = waiter.get(key);
+                spinning.lock();
+                spinning.unlock();
+            });
+            thread.start();
+            Thread.sleep(20);
+            lock.unlock();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(thread.isAlive());
+        }
+        long start = System.nanoTime();
+        WaitStrategy.spinThenPark(1).await(1, TimeUnit.SECONDS.toNanos(1));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void testExponentialBackoffIgnoresSignalsAndStaysInBounds() throws InterruptedException {
+        WaitStrategy backoff = WaitStrategy.exponentialBackoff(40, 100);
+        long[] elapsed = new long[3];
+        Thread thread = new Thread(() -> {
+            for (int retries = 1; retries <= 3; retries++) {
+                long start = System.nanoTime();
+                backoff.await(retries, TimeUnit.SECONDS.toNanos(1));
+                elapsed[retries - 1] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+        });
+        thread.start();
+        Thread.sleep(5);
+        LockSupport.unpark(thread);
+        thread.join();
+        // bounds 40, 80 and 100 (capped) ms, waiting at least half of each
+        assertTrue(elapsed[0] >= 20 && elapsed[0] < 40 + 50, "first wait " + elapsed[0]);
+        assertTrue(elapsed[1] >= 40 && elapsed[1] < 80 + 50, "second wait " + elapsed[1]);
+        assertTrue(elapsed[2] >= 50 && elapsed[2] < 100 + 50, "third wait " + elapsed[2]);
+
+        long start = System.nanoTime();
+        backoff.await(10, TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategy.exponentialBackoff(10, 5));
+    }
+}